@@ -0,0 +1,111 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.payload.response.ArticleResponse;
+import com.example.demo.serialization.JacksonConfig;
+import com.example.demo.service.ArticleService;
+import com.example.demo.service.ArticleViewService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Mapping and Jackson serialization of ArticleResponse; like lookups are stubbed so only CPU work is measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ArticleResponseBenchmark {
+
+    @Param({"1024", "16384", "131072"})
+    private int contentSize;
+
+    private ArticleController controller;
+    private Article article;
+    private ArticleResponse response;
+    private Authentication authentication;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        controller = new ArticleController();
+        ReflectionTestUtils.setField(controller, "articleService", new StubArticleService());
+        ReflectionTestUtils.setField(controller, "articleViewService", new ArticleViewService(10, new SimpleMeterRegistry()));
+
+        User author = new User();
+        author.setId(1L);
+        author.setUsername("alice");
+
+        article = new Article();
+        article.setId(42L);
+        article.setTitle("Benchmarking the article response path");
+        article.setDescription("A fixed-seed article used to compare serialization cost across commits");
+        article.setContent(content(contentSize));
+        article.setSlug("benchmarking-the-article-response-path");
+        article.setImageUrl("https://example.com/cover.jpg");
+        article.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        article.setAuthor(author);
+
+        authentication = new UsernamePasswordAuthenticationToken("bob", null, List.of());
+        response = controller.convertToResponse(article, authentication);
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // As configured in the application: ArticleResponse needs its property filter registered
+        new JacksonConfig().articleFieldsFilter().customize(builder);
+        objectMapper = builder.build();
+    }
+
+    @Benchmark
+    public ArticleResponse convertToResponse() {
+        return controller.convertToResponse(article, authentication);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.convertToResponse(article, authentication));
+    }
+
+    // Same seed for every run so results stay comparable between commits
+    static String content(int size) {
+        Random random = new Random(size);
+        StringBuilder sb = new StringBuilder(size);
+        while (sb.length() < size) {
+            int word = 2 + random.nextInt(9);
+            for (int i = 0; i < word; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            sb.append(random.nextInt(12) == 0 ? ".\n" : " ");
+        }
+        sb.setLength(size);
+        return sb.toString();
+    }
+
+    static class StubArticleService extends ArticleService {
+        @Override
+        public long countLikes(Long articleId) {
+            return 128;
+        }
+
+        @Override
+        public boolean hasUserLiked(Long articleId, String username) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.security.service;
+
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UserDetailsImplBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Z5Z5Z5Z5Z5Z5Z5Z5Z5Z5Z5");
+        user.setEnabled(true);
+        user.setRoles(Set.of(
+                new Role(1L, Role.ERole.ROLE_USER),
+                new Role(2L, Role.ERole.ROLE_ADMIN)));
+    }
+
+    @Benchmark
+    public UserDetailsImpl build() {
+        return UserDetailsImpl.build(user);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.serialization;
+
+import com.example.demo.payload.response.ArticleResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// JSON against CBOR and Smile for a feed page as GET /api/articles returns it: a Page of list-view ArticleResponses
+// without bodies. Run with the jmh profile, which adds -prof gc for allocation per operation; the encoded and
+// gzipped sizes of each page are printed once per fork.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PageImpl<ArticleResponse> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException(format);
+        };
+        builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        new JacksonConfig().articleFieldsFilter().customize(builder);
+        objectMapper = builder.build();
+
+        page = feedPage(pageSize);
+        encoded = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d articles: %d bytes, %d bytes gzipped%n", format, pageSize, encoded.length,
+                gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    // What a client does with the page
+    @Benchmark
+    public JsonNode deserialize() throws IOException {
+        return objectMapper.readTree(encoded);
+    }
+
+    // Fixed seed, so pages are the same for every format and every run
+    static PageImpl<ArticleResponse> feedPage(int size) {
+        Random random = new Random(size);
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        List<ArticleResponse> articles = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            long id = 100_000L + i;
+            String title = words(random, 4 + random.nextInt(8));
+            String slug = title.replace(' ', '-') + "-" + id;
+            ArticleResponse article = new ArticleResponse();
+            article.setId(id);
+            article.setTitle(title);
+            article.setDescription(words(random, 15 + random.nextInt(20)));
+            article.setSlug(slug);
+            article.setImageUrl("/api/images/" + Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()));
+            article.setThumbnailUrl(article.getImageUrl() + "/thumbnail");
+            article.setTags(List.of(words(random, 1), words(random, 1)));
+            article.setAuthorUsername("author" + random.nextInt(5000));
+            article.setAuthorId((long) random.nextInt(5000));
+            article.setCreatedAt(now.minusMinutes(i * 37L));
+            // Power-law-ish counters, as in the load test's dataset
+            article.setLikeCount((long) Math.pow(10, random.nextDouble() * 4));
+            article.setViewCount((long) Math.pow(10, 1 + random.nextDouble() * 5));
+            article.setUniqueViewers(article.getViewCount() / 3);
+            article.setHashLiked(random.nextBoolean());
+            articles.add(article);
+        }
+        return new PageImpl<>(articles, PageRequest.of(0, size, Sort.by("createdAt").descending()), 50_000);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int word = 0; word < count; word++) {
+            if (word > 0) {
+                sb.append(' ');
+            }
+            int length = 2 + random.nextInt(9);
+            for (int i = 0; i < length; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+// Renders the same template EmailService uses, with the template cache enabled as in production
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ConfirmationEmailBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        user = new User();
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setConfirmationToken("5f0c7d8e-2b8a-4c1e-9a53-0f6a1c9d2e41");
+    }
+
+    @Benchmark
+    public String render() {
+        Context context = new Context();
+        context.setVariable("user", user);
+        context.setVariable("confirmationUrl", "http://localhost:8080/api/auth/confirm?token=" + user.getConfirmationToken());
+        return templateEngine.process("email/confirmation-email", context);
+    }
+}
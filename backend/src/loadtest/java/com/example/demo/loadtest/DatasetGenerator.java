@@ -0,0 +1,273 @@
+package com.example.demo.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Random;
+
+// Bulk-loads synthetic users, articles and likes with COPY.
+// Usernames are "user<id>", slugs are "article-<id>" and every password is PASSWORD,
+// so the load test can address the data without reading it back.
+public class DatasetGenerator {
+    public static final String PASSWORD = "password";
+
+    private static final int FLUSH_BYTES = 1 << 20;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String[] WORDS = {
+            "java", "spring", "performance", "latency", "database", "index", "query", "cache", "thread",
+            "memory", "story", "writer", "reader", "garden", "river", "mountain", "city", "coffee", "music",
+            "travel", "design", "pattern", "system", "network", "future", "history", "science", "health",
+            "market", "startup", "product", "team", "culture", "learning", "teaching", "journey", "morning",
+            "evening", "winter", "summer", "ocean", "forest", "engine", "signal", "kernel", "compiler",
+            "function", "stream", "service", "cloud", "server", "client", "browser", "mobile", "photo",
+            "recipe", "kitchen", "friend", "family", "weekend", "project", "idea", "problem", "solution"
+    };
+
+    private final int users;
+    private final int articles;
+    private final long likes;
+    private final double likeSkew;
+    private final double authorSkew;
+    private final int contentChars;
+    private final int days;
+    private final Random random;
+
+    public DatasetGenerator(LoadTestOptions options) {
+        this.users = options.getInt("users", 5_000);
+        this.articles = options.getInt("articles", 50_000);
+        this.likes = options.getLong("likes", 1_000_000);
+        this.likeSkew = options.getDouble("like-skew", 1.1);
+        this.authorSkew = options.getDouble("author-skew", 0.9);
+        this.contentChars = options.getInt("content-chars", 8_000);
+        this.days = options.getInt("days", 365);
+        this.random = new Random(options.getLong("seed", 42));
+    }
+
+    public void generate(Connection connection) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE likes, article_views, article_bodies, related_articles, timeline_entries, author_stats, trending_scores, follows, articles, user_roles, users RESTART IDENTITY CASCADE");
+            statement.execute("INSERT INTO roles (name) SELECT 'ROLE_USER' WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM roles WHERE name = 'ROLE_USER')");
+        }
+
+        long started = System.nanoTime();
+        copyUsers(copyManager);
+        log("users", users, started);
+
+        started = System.nanoTime();
+        LocalDateTime[] createdAt = copyArticles(copyManager, now);
+        log("articles", articles, started);
+
+        started = System.nanoTime();
+        long copiedLikes = copyLikes(copyManager, createdAt, now);
+        log("likes", copiedLikes, started);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO user_roles (user_id, role_id) "
+                    + "SELECT u.id, r.id FROM users u CROSS JOIN roles r WHERE r.name = 'ROLE_USER'");
+            for (String table : new String[]{"users", "articles", "likes"}) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "(SELECT COALESCE(MAX(id), 1) FROM " + table + "))");
+            }
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private void copyUsers(CopyManager copyManager) throws SQLException {
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        try (Copy copy = new Copy(copyManager,
+                "COPY users (id, username, email, password, enabled) FROM STDIN")) {
+            for (int id = 1; id <= users; id++) {
+                copy.field(id).field("user" + id).field("user" + id + "@example.com").field(hash).last("t");
+            }
+        }
+    }
+
+    private LocalDateTime[] copyArticles(CopyManager copyManager, LocalDateTime now) throws SQLException {
+        ZipfDistribution authors = new ZipfDistribution(users, authorSkew);
+        LocalDateTime[] createdAt = new LocalDateTime[articles + 1];
+        long span = days * 86_400L;
+        try (Copy copy = new Copy(copyManager,
+                "COPY articles (id, title, description, slug, image_url, created_at, user_id) FROM STDIN")) {
+            for (int id = 1; id <= articles; id++) {
+                // Ids grow with time, like rows written by the application
+                createdAt[id] = now.minusSeconds(span - span * id / articles);
+                copy.field(id)
+                        .field(capitalize(words(4 + random.nextInt(6))))
+                        .field(capitalize(words(15 + random.nextInt(20))) + ".")
+                        .field("article-" + id)
+                        .field(random.nextInt(3) == 0 ? null : "https://picsum.photos/seed/" + id + "/1200/630")
+                        .field(TIMESTAMP.format(createdAt[id]))
+                        .last(String.valueOf(authors.sample(random)));
+            }
+        }
+        // Bodies go in uncompressed (bytea hex); the application compresses them when it starts
+        try (Copy copy = new Copy(copyManager, "COPY article_bodies (article_id, codec, raw_length, data) FROM STDIN")) {
+            for (int id = 1; id <= articles; id++) {
+                byte[] body = paragraphs(contentChars / 2 + random.nextInt(contentChars + 1))
+                        .getBytes(StandardCharsets.UTF_8);
+                copy.field(id).field(0).field(body.length).last("\\x" + HexFormat.of().formatHex(body));
+            }
+        }
+        return createdAt;
+    }
+
+    private long copyLikes(CopyManager copyManager, LocalDateTime[] createdAt, LocalDateTime now) throws SQLException {
+        // Popularity rank per article is a seeded permutation so hot articles are spread over the id range
+        int[] rankOf = new int[articles + 1];
+        int[] order = new int[articles];
+        for (int i = 0; i < articles; i++) {
+            order[i] = i + 1;
+        }
+        for (int i = articles - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        for (int i = 0; i < articles; i++) {
+            rankOf[order[i]] = i + 1;
+        }
+
+        double harmonic = 0;
+        for (int rank = 1; rank <= articles; rank++) {
+            harmonic += ZipfDistribution.weight(rank, likeSkew);
+        }
+
+        long id = 0;
+        try (Copy copy = new Copy(copyManager, "COPY likes (id, article_id, user_id, created_at) FROM STDIN")) {
+            for (int article = 1; article <= articles; article++) {
+                long count = Math.min(users,
+                        Math.round(likes * ZipfDistribution.weight(rankOf[article], likeSkew) / harmonic));
+                // offset + i * step visits distinct users when step is coprime with the user count
+                int offset = random.nextInt(users);
+                int step = coprimeStep();
+                long window = Math.max(1, Duration.between(createdAt[article], now).toSeconds());
+                for (long i = 0; i < count; i++) {
+                    int user = 1 + (int) ((offset + i * step) % users);
+                    LocalDateTime likedAt = createdAt[article].plusSeconds((long) (window * random.nextDouble()));
+                    copy.field(++id).field(article).field(user).last(TIMESTAMP.format(likedAt));
+                }
+            }
+        }
+        return id;
+    }
+
+    private int coprimeStep() {
+        if (users == 1) {
+            return 1;
+        }
+        while (true) {
+            int step = 1 + random.nextInt(users - 1);
+            if (gcd(step, users) == 1) {
+                return step;
+            }
+        }
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private String words(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private String paragraphs(int chars) {
+        StringBuilder sb = new StringBuilder(chars + 64);
+        while (sb.length() < chars) {
+            sb.append(capitalize(words(8 + random.nextInt(12)))).append(". ");
+            if (random.nextInt(6) == 0) {
+                sb.append("\n\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static void log(String what, long rows, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("Loaded %,d %s in %.1fs (%,.0f rows/s)%n", rows, what, seconds, rows / seconds);
+    }
+
+    // Streams rows in COPY text format, flushing to the server every FLUSH_BYTES
+    private static class Copy implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+
+        Copy(CopyManager copyManager, String sql) throws SQLException {
+            this.copyIn = copyManager.copyIn(sql);
+        }
+
+        Copy field(long value) {
+            buffer.append(value).append('\t');
+            return this;
+        }
+
+        Copy field(String value) {
+            append(value);
+            buffer.append('\t');
+            return this;
+        }
+
+        void last(String value) throws SQLException {
+            append(value);
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void append(String value) {
+            if (value == null) {
+                buffer.append("\\N");
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load generator: every virtual user picks an operation from the configured mix,
+// waits for the response and immediately issues the next request.
+public class LoadTest {
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final String baseUrl;
+    private final boolean inProcess;
+    private final int users;
+    private final int articles;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int tokenPool;
+    private final Map<String, Integer> mix;
+    private final ZipfDistribution articlePopularity;
+    private final ZipfDistribution feedPages;
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+    private volatile boolean recording;
+
+    // inProcess: the backend runs in this JVM, so its allocation rate can be reported (load generator included)
+    public LoadTest(String baseUrl, LoadTestOptions options, boolean inProcess) {
+        this.baseUrl = baseUrl;
+        this.inProcess = inProcess;
+        this.users = options.getInt("users", 5_000);
+        this.articles = options.getInt("articles", 50_000);
+        this.concurrency = options.getInt("concurrency", 64);
+        this.warmup = options.getDuration("warmup", Duration.ofSeconds(15));
+        this.duration = options.getDuration("duration", Duration.ofSeconds(60));
+        this.tokenPool = options.getInt("token-pool", 200);
+        this.mix = parseMix(options.get("mix", "feed:50,detail:30,like:15,signin:5"));
+        this.articlePopularity = new ZipfDistribution(articles, options.getDouble("read-skew", 1.0));
+        this.feedPages = new ZipfDistribution(Math.max(1, articles / 10), 1.5);
+        mix.keySet().forEach(operation -> stats.put(operation, new Stats()));
+    }
+
+    public void run() throws Exception {
+        System.out.printf("Signing in %d users for the token pool%n", tokenPool);
+        for (int i = 1; i <= tokenPool; i++) {
+            HttpResponse<String> response = signin(1 + (i * 7919) % users);
+            Matcher matcher = TOKEN.matcher(response.body());
+            if (matcher.find()) {
+                tokens.add(matcher.group(1));
+            }
+        }
+        if (tokens.isEmpty() && mix.containsKey("like")) {
+            throw new IllegalStateException("No user could sign in; was the dataset generated?");
+        }
+
+        System.out.printf("Running %d virtual users: %s warm-up, %s measured, mix %s%n",
+                concurrency, warmup, duration, mix);
+        long deadline = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> worker(deadline));
+            }
+            while (System.nanoTime() < measureFrom) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            recording = true;
+            long started = System.nanoTime();
+            long allocatedFrom = allocatedBytes();
+            executor.shutdown();
+            executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+            report((System.nanoTime() - started) / 1e9, allocatedBytes() - allocatedFrom);
+        }
+    }
+
+    private void worker(long deadline) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < deadline) {
+            int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+            String operation = null;
+            for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+                pick -= entry.getValue();
+                if (pick < 0) {
+                    operation = entry.getKey();
+                    break;
+                }
+            }
+            execute(operation);
+        }
+    }
+
+    private void execute(String operation) {
+        Random random = ThreadLocalRandom.current();
+        long started = System.nanoTime();
+        int status;
+        try {
+            HttpResponse<String> response = switch (operation) {
+                case "feed" -> get("/api/articles?page=" + (feedPages.sample(random) - 1) + "&size=10", null);
+                // Same pages, rendered to JSON by Postgres
+                case "feed-json" -> get("/api/articles/feed?page=" + (feedPages.sample(random) - 1) + "&size=10", null);
+                case "detail" -> get("/api/articles/slug/article-" + articlePopularity.sample(random), null);
+                case "like" -> post("/api/articles/" + articlePopularity.sample(random) + "/likes", "",
+                        tokens.get(random.nextInt(tokens.size())));
+                case "signin" -> signin(1 + random.nextInt(users));
+                default -> throw new IllegalArgumentException("Unknown operation " + operation);
+            };
+            status = response.statusCode();
+        } catch (Exception e) {
+            status = -1;
+        }
+        if (recording) {
+            stats.get(operation).record(System.nanoTime() - started, status);
+        }
+    }
+
+    private HttpResponse<String> signin(int user) throws Exception {
+        String body = "{\"username\":\"user" + user + "\",\"password\":\"" + DatasetGenerator.PASSWORD + "\"}";
+        return post("/api/auth/signin", body, null);
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return client.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body, String token) throws Exception {
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    private void report(double seconds, long allocated) {
+        System.out.println();
+        System.out.printf("%-9s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latency;
+            long errors = entry.getValue().errors.sum();
+            total.add(histogram);
+            totalErrors += errors;
+            print(entry.getKey(), histogram, errors, seconds);
+        }
+        print("total", total, totalErrors, seconds);
+        if (inProcess) {
+            System.out.printf("%nAllocated %.1f MB/s, %.1f KB per request (backend and load generator)%n",
+                    allocated / seconds / 1e6, allocated / 1e3 / Math.max(1, total.getTotalCount()));
+        }
+    }
+
+    private static void print(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-9s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                mix.put(pair[0].trim(), weight);
+            }
+        }
+        return mix;
+    }
+
+    private static class Stats {
+        // Latency in microseconds, up to one minute with three significant digits
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder errors = new LongAdder();
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+            if (status < 200 || status >= 400) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.repository.ArticleRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Entry point of the load-test harness.
+//
+//   --base-url=http://host:8080   drive an already running backend (dataset must exist)
+//   --jdbc-url=... --db-user=... --db-password=...   use an existing Postgres instead of a container
+//   --skip-generate               keep the data that is already in the database
+//
+// Without --base-url a throwaway Postgres container is started, the dataset is generated and the
+// backend is booted in this JVM. Dataset and workload options are documented in DatasetGenerator
+// and LoadTest; options starting with spring./app./logging. are passed to the backend.
+public class LoadTestMain {
+    private static final int ENTITY_PAGE_SIZE = 50;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        String baseUrl = options.get("base-url", null);
+        if (baseUrl != null) {
+            new LoadTest(baseUrl, options, false).run();
+            return;
+        }
+
+        PostgreSQLContainer<?> postgres = null;
+        String jdbcUrl = options.get("jdbc-url", null);
+        String dbUser = options.get("db-user", "postgres");
+        String dbPassword = options.get("db-password", "");
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>(options.get("postgres-image", "postgres:16-alpine"))
+                    .withCommand("postgres", "-c", "shared_buffers=256MB", "-c", "max_connections=200");
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            dbUser = postgres.getUsername();
+            dbPassword = postgres.getPassword();
+        }
+
+        try {
+            Map<String, Object> properties = applicationProperties(options, jdbcUrl, dbUser, dbPassword);
+            if (!options.getBoolean("skip-generate", false)) {
+                // First boot only creates the schema; the second one starts with the generated data in place
+                new SpringApplicationBuilder(DemoApplication.class).properties(properties).run().close();
+                try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+                    new DatasetGenerator(options).generate(connection);
+                }
+            }
+
+            try (ConfigurableApplicationContext context =
+                         new SpringApplicationBuilder(DemoApplication.class).properties(properties).run()) {
+                String port = context.getEnvironment().getProperty("local.server.port");
+                StorageReport storage = new StorageReport(jdbcUrl, dbUser, dbPassword);
+                storage.begin();
+                new LoadTest("http://localhost:" + port, options, true).run();
+                storage.print();
+                timeEntityLoads(context, options.getInt("entity-load-pages", 500));
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    // Loads feed pages of Article entities through the repository, without HTTP or serialization
+    private static void timeEntityLoads(ConfigurableApplicationContext context, int pages) {
+        if (pages <= 0) {
+            return;
+        }
+        ArticleRepository articleRepository = context.getBean(ArticleRepository.class);
+        long articles = articleRepository.count();
+        Histogram latency = new Histogram(3);
+        Random random = new Random(42);
+        for (int i = 0; i < pages; i++) {
+            int page = random.nextInt((int) Math.max(1, articles / ENTITY_PAGE_SIZE));
+            long started = System.nanoTime();
+            articleRepository.findSliceBy(PageRequest.of(page, ENTITY_PAGE_SIZE, Sort.by("createdAt").descending()));
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+        }
+        System.out.printf("%nEntity load, %d pages of %d articles: p50 %.2f ms, p99 %.2f ms%n", pages, ENTITY_PAGE_SIZE,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0);
+    }
+
+    private static Map<String, Object> applicationProperties(LoadTestOptions options, String jdbcUrl,
+                                                             String dbUser, String dbPassword) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", dbUser);
+        properties.put("spring.datasource.password", dbPassword);
+        properties.put("spring.datasource.hikari.maximum-pool-size", options.getInt("pool-size", 20));
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("server.port", 0);
+        properties.put("jwt.secret", "load-test-secret-key-that-is-long-enough-for-hs256");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.demo", "WARN");
+        // All virtual users share one loopback address, which the sign-in limit would throttle to a trickle;
+        // pass --app.rate-limit.enabled=true to measure with the limiter
+        properties.put("app.rate-limit.enabled", false);
+        properties.putAll(options.applicationProperties());
+        return properties;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Parses "--key=value" arguments; a single argument may hold several options separated by whitespace
+public class LoadTestOptions {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (!token.startsWith("--")) {
+                    continue;
+                }
+                int eq = token.indexOf('=');
+                if (eq < 0) {
+                    options.values.put(token.substring(2), "true");
+                } else {
+                    options.values.put(token.substring(2, eq), token.substring(eq + 1));
+                }
+            }
+        }
+        return options;
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value.replace("_", "")) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = values.get(key);
+        return value != null ? Long.parseLong(value.replace("_", "")) : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    // Accepts "90s", "5m" or a plain number of seconds
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // Options that are passed through to the application under test, e.g. --logging.level.root=WARN
+    public Map<String, Object> applicationProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith("spring.") || key.startsWith("app.") || key.startsWith("logging.")
+                    || key.startsWith("management.") || key.startsWith("server.")) {
+                properties.put(key, value);
+            }
+        });
+        return properties;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.loadtest;
+
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold-start benchmark: boots the packaged backend in fresh JVMs, once as a plain jar and once in the
+// fast-start mode (AOT code, CDS archive, faststart profile with warm-up), and reports for each the time from
+// process start to the first answered API request and to a green readiness probe.
+//
+//   mvn -Pfaststart,loadtest -DskipTests verify -Dloadtest.main=com.example.demo.loadtest.StartupBenchmark -Dloadtest.args="--runs=5"
+//
+//   --runs=5                      boots per mode
+//   --jar=target/demo-0.0.1-SNAPSHOT.jar   the plain mode
+//   --faststart-dir=target/faststart       extracted jar and application.jsa from the faststart profile
+//   --jdbc-url=... --db-user=... --db-password=...   use an existing Postgres instead of a container
+//   --timeout=120s                per boot
+//
+// The plain boots run first: they apply the schema that the faststart profile expects to be in place.
+public class StartupBenchmark {
+    private static final String FIRST_REQUEST = "/api/articles?page=0&size=10";
+    private static final String READINESS = "/actuator/health/readiness";
+
+    private record Boot(long firstRequestMs, long readyMs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        int runs = options.getInt("runs", 5);
+        Duration timeout = options.getDuration("timeout", Duration.ofSeconds(120));
+        Path jar = Path.of(options.get("jar", "target/demo-0.0.1-SNAPSHOT.jar"));
+        Path fastStartDir = Path.of(options.get("faststart-dir", "target/faststart"));
+        Path fastStartJar = fastStartDir.resolve(jar.getFileName());
+        Path archive = fastStartDir.resolve("application.jsa");
+        for (Path required : List.of(jar, fastStartJar, archive)) {
+            if (!Files.exists(required)) {
+                throw new IllegalStateException(required + " is missing, build with -Pfaststart first");
+            }
+        }
+
+        PostgreSQLContainer<?> postgres = null;
+        String jdbcUrl = options.get("jdbc-url", null);
+        String dbUser = options.get("db-user", "postgres");
+        String dbPassword = options.get("db-password", "");
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>(options.get("postgres-image", "postgres:16-alpine"));
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            dbUser = postgres.getUsername();
+            dbPassword = postgres.getPassword();
+        }
+
+        try {
+            List<String> database = List.of("--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + dbUser, "--spring.datasource.password=" + dbPassword,
+                    "--jwt.secret=startup-benchmark-secret-key-that-is-long-enough-for-hs256");
+
+            List<Boot> plain = new ArrayList<>();
+            List<Boot> fastStart = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                plain.add(boot("plain-" + run, List.of("-jar", jar.toString()), database, timeout));
+            }
+            for (int run = 0; run < runs; run++) {
+                List<String> jvm = List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error",
+                        "-Dspring.aot.enabled=true", "-jar", fastStartJar.toString(),
+                        "--spring.profiles.active=faststart");
+                fastStart.add(boot("faststart-" + run, jvm, database, timeout));
+            }
+
+            System.out.printf("%nStartup over %d runs (median / min)%n", runs);
+            print("plain", plain);
+            print("faststart", fastStart);
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static Boot boot(String name, List<String> jvmAndJar, List<String> applicationArgs, Duration timeout)
+            throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmAndJar);
+        command.addAll(applicationArgs);
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        Path log = Path.of("target", "startup-" + name + ".log");
+        Files.createDirectories(log.getParent());
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        String baseUrl = "http://localhost:" + port;
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = started + timeout.toNanos();
+            long firstRequest = -1;
+            long ready = -1;
+            while (ready < 0 || firstRequest < 0) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(name + " did not become ready within " + timeout + ", see " + log);
+                }
+                if (firstRequest < 0 && status(client, baseUrl + FIRST_REQUEST) == 200) {
+                    firstRequest = System.nanoTime();
+                }
+                if (ready < 0 && status(client, baseUrl + READINESS) == 200) {
+                    ready = System.nanoTime();
+                }
+                Thread.sleep(10);
+            }
+            Boot boot = new Boot(TimeUnit.NANOSECONDS.toMillis(firstRequest - started),
+                    TimeUnit.NANOSECONDS.toMillis(ready - started));
+            System.out.printf("%-12s first request %6d ms, ready %6d ms%n", name, boot.firstRequestMs(), boot.readyMs());
+            return boot;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int status(HttpClient client, String url) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).GET().build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void print(String mode, List<Boot> boots) {
+        long[] firstRequest = boots.stream().mapToLong(Boot::firstRequestMs).sorted().toArray();
+        long[] ready = boots.stream().mapToLong(Boot::readyMs).sorted().toArray();
+        System.out.printf("%-12s first request %6d / %6d ms, ready %6d / %6d ms%n", mode,
+                median(firstRequest), firstRequest[0], median(ready), ready[0]);
+    }
+
+    private static long median(long[] sorted) {
+        return sorted.length % 2 == 1
+                ? sorted[sorted.length / 2]
+                : (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+    }
+}
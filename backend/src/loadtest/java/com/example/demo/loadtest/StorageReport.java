@@ -0,0 +1,85 @@
+package com.example.demo.loadtest;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Size and shared buffer hit rate of the article tables. begin() snapshots the I/O counters of
+// pg_statio_user_tables so print() reports hits and reads of the measured window only.
+public class StorageReport {
+    private static final String[] TABLES = {"articles", "article_bodies"};
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final Map<String, long[]> started = new HashMap<>();
+
+    public StorageReport(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    public void begin() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            started.putAll(blocks(connection));
+        }
+    }
+
+    public void print() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            System.out.println();
+            System.out.printf("%-15s %10s %10s %10s %10s %12s %12s%n",
+                    "table", "heap MB", "toast MB", "index MB", "total MB", "heap hit %", "toast hit %");
+            Map<String, long[]> ended = blocks(connection);
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    SELECT c.relname, pg_relation_size(c.oid),
+                           CASE WHEN c.reltoastrelid = 0 THEN 0 ELSE pg_relation_size(c.reltoastrelid) END,
+                           pg_indexes_size(c.oid), pg_total_relation_size(c.oid)
+                    FROM pg_class c WHERE c.relkind = 'r' AND c.relname = ANY (?) ORDER BY c.relname
+                    """)) {
+                statement.setArray(1, tables(connection));
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        String table = rs.getString(1);
+                        long[] from = started.getOrDefault(table, new long[4]);
+                        long[] to = ended.getOrDefault(table, new long[4]);
+                        System.out.printf("%-15s %10.1f %10.1f %10.1f %10.1f %12s %12s%n", table,
+                                rs.getLong(2) / 1e6, rs.getLong(3) / 1e6, rs.getLong(4) / 1e6, rs.getLong(5) / 1e6,
+                                hitRate(to[0] - from[0], to[1] - from[1]), hitRate(to[2] - from[2], to[3] - from[3]));
+                    }
+                }
+            }
+        }
+    }
+
+    // heap hits, heap reads, toast hits, toast reads
+    private static Map<String, long[]> blocks(Connection connection) throws SQLException {
+        Map<String, long[]> blocks = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT relname, heap_blks_hit, heap_blks_read, COALESCE(toast_blks_hit, 0), COALESCE(toast_blks_read, 0)
+                FROM pg_statio_user_tables WHERE relname = ANY (?)
+                """)) {
+            statement.setArray(1, tables(connection));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    blocks.put(rs.getString(1), new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)});
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static Array tables(Connection connection) throws SQLException {
+        return connection.createArrayOf("text", TABLES);
+    }
+
+    private static String hitRate(long hits, long reads) {
+        return hits + reads == 0 ? "-" : String.format("%.2f", 100.0 * hits / (hits + reads));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Samples ranks 1..n with probability proportional to 1 / rank^exponent
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += weight(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public static double weight(int rank, double exponent) {
+        return 1.0 / Math.pow(rank, exponent);
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CacheInvalidationEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Changes one node tells the others about, deduplicated so that a burst of writes to one article is one entry.
+// Encoded as the sending node followed by space separated tokens:
+//   c<article>.<author>   article created          u<article>             article updated
+//   d<article>.<author>   article deleted          l<article>:<delta>     net change in likes
+//   r<user>               user registered
+// Not thread-safe; InvalidationBus guards the batch it is filling.
+public class InvalidationBatch {
+
+    public record Decoded(String node, InvalidationBatch batch) {
+    }
+
+    private final Map<Long, Long> created = new LinkedHashMap<>();
+    private final Set<Long> updated = new LinkedHashSet<>();
+    private final Map<Long, Long> deleted = new LinkedHashMap<>();
+    private final Map<Long, Integer> likes = new LinkedHashMap<>();
+    private final Set<Long> registered = new LinkedHashSet<>();
+
+    public void created(long articleId, long authorId) {
+        if (!deleted.containsKey(articleId)) {
+            created.put(articleId, authorId);
+            updated.remove(articleId);
+        }
+    }
+
+    public void updated(long articleId) {
+        if (!created.containsKey(articleId) && !deleted.containsKey(articleId)) {
+            updated.add(articleId);
+        }
+    }
+
+    // An article created and deleted within the batch was never seen elsewhere, so both cancel out
+    public void deleted(long articleId, long authorId) {
+        updated.remove(articleId);
+        likes.remove(articleId);
+        if (created.remove(articleId) == null) {
+            deleted.put(articleId, authorId);
+        }
+    }
+
+    public void liked(long articleId, int delta) {
+        if (deleted.containsKey(articleId)) {
+            return;
+        }
+        if (likes.merge(articleId, delta, Integer::sum) == 0) {
+            likes.remove(articleId);
+        }
+    }
+
+    public void registered(long userId) {
+        registered.add(userId);
+    }
+
+    // Applies a later batch on top of this one
+    public void merge(InvalidationBatch later) {
+        later.created.forEach(this::created);
+        later.updated.forEach(this::updated);
+        later.deleted.forEach(this::deleted);
+        later.likes.forEach(this::liked);
+        later.registered.forEach(this::registered);
+    }
+
+    public boolean isEmpty() {
+        return created.isEmpty() && updated.isEmpty() && deleted.isEmpty() && likes.isEmpty() && registered.isEmpty();
+    }
+
+    public CacheInvalidationEvent toEvent() {
+        return new CacheInvalidationEvent(Map.copyOf(created), Set.copyOf(updated), Map.copyOf(deleted),
+                Map.copyOf(likes), Set.copyOf(registered));
+    }
+
+    // One or more payloads of at most maxLength ASCII characters, each starting with the node
+    public List<String> encode(String node, int maxLength) {
+        List<String> tokens = new ArrayList<>();
+        created.forEach((article, author) -> tokens.add("c" + article + "." + author));
+        updated.forEach(article -> tokens.add("u" + article));
+        deleted.forEach((article, author) -> tokens.add("d" + article + "." + author));
+        likes.forEach((article, delta) -> tokens.add("l" + article + ":" + delta));
+        registered.forEach(user -> tokens.add("r" + user));
+
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(node);
+        for (String token : tokens) {
+            if (payload.length() + 1 + token.length() > maxLength && payload.length() > node.length()) {
+                payloads.add(payload.toString());
+                payload = new StringBuilder(node);
+            }
+            payload.append(' ').append(token);
+        }
+        if (payload.length() > node.length()) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    // Tokens that cannot be parsed, e.g. from a newer version during a rolling deploy, are skipped; a payload that
+    // does not start with a node is rejected
+    public static Decoded decode(String payload) {
+        if (payload == null || payload.isBlank() || payload.startsWith(" ")) {
+            throw new IllegalArgumentException("Cache invalidation payload without a node");
+        }
+        String[] tokens = payload.split(" ");
+        InvalidationBatch batch = new InvalidationBatch();
+        for (int i = 1; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (token.length() < 2) {
+                continue;
+            }
+            try {
+                String value = token.substring(1);
+                switch (token.charAt(0)) {
+                    case 'c' -> batch.created(first(value, '.'), second(value, '.'));
+                    case 'u' -> batch.updated(Long.parseLong(value));
+                    case 'd' -> batch.deleted(first(value, '.'), second(value, '.'));
+                    case 'l' -> batch.liked(first(value, ':'), (int) second(value, ':'));
+                    case 'r' -> batch.registered(Long.parseLong(value));
+                    default -> {
+                    }
+                }
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                // skipped
+            }
+        }
+        return new Decoded(tokens[0], batch);
+    }
+
+    private static long first(String value, char separator) {
+        return Long.parseLong(value.substring(0, value.indexOf(separator)));
+    }
+
+    private static long second(String value, char separator) {
+        return Long.parseLong(value.substring(value.indexOf(separator) + 1));
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.CacheResyncEvent;
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.event.UserRegisteredEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+// Keeps the in-memory caches of several instances in step through Postgres LISTEN/NOTIFY.
+//
+// Local article, like and signup events are recorded once their transaction commits into a pending batch, which
+// deduplicates bursts (ten edits of one article are one entry). Every flush interval the batch goes out as one
+// NOTIFY, split only past Postgres' 8000 byte payload limit. Each node LISTENs on its own connection outside the
+// pool, skips its own messages and publishes the others as one CacheInvalidationEvent per poll; the services
+// holding caches read the affected rows back from there. Notifications sent while a node was disconnected are
+// lost, so after a reconnect it publishes CacheResyncEvent and the caches reload.
+@Service
+public class InvalidationBus {
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+    private static final String CHANNEL = "cache_invalidation";
+    // Postgres rejects payloads of 8000 bytes or more; the encoding is ASCII
+    private static final int MAX_PAYLOAD = 7900;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+    private final int pollMs;
+    private final long keepaliveMs;
+    private final long maxBackoffMs;
+    private final String node = HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+
+    private final Counter sent;
+    private final Counter received;
+    private final Counter malformed;
+    private final Counter reconnects;
+
+    private InvalidationBatch pending = new InvalidationBatch();
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private volatile boolean running;
+    private volatile Thread listener;
+    private volatile Connection connection;
+
+    public InvalidationBus(@Value("${app.invalidation.enabled:true}") boolean enabled,
+                           @Value("${app.invalidation.poll-ms:500}") int pollMs,
+                           @Value("${app.invalidation.keepalive-ms:30000}") long keepaliveMs,
+                           @Value("${app.invalidation.max-backoff-ms:30000}") long maxBackoffMs,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.pollMs = pollMs;
+        this.keepaliveMs = keepaliveMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.sent = Counter.builder("cache.invalidation.notifications")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.notifications")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.malformed = Counter.builder("cache.invalidation.malformed")
+                .description("Notifications that could not be decoded")
+                .register(meterRegistry);
+        this.reconnects = Counter.builder("cache.invalidation.reconnects")
+                .register(meterRegistry);
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    @EventListener
+    public void onArticleSaved(ArticleSavedEvent event) {
+        long articleId = event.article().getId();
+        long authorId = event.article().getAuthor().getId();
+        afterCommit(batch -> {
+            if (event.created()) {
+                batch.created(articleId, authorId);
+            } else {
+                batch.updated(articleId);
+            }
+        });
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        long articleId = event.article().getId();
+        long authorId = event.article().getAuthor().getId();
+        afterCommit(batch -> batch.deleted(articleId, authorId));
+    }
+
+    @EventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        afterCommit(batch -> batch.liked(event.articleId(), event.liked() ? 1 : -1));
+    }
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        long userId = event.user().getId();
+        afterCommit(batch -> batch.registered(userId));
+    }
+
+    // A rolled back change must not reach other nodes, and one that is announced before its commit could be
+    // read back there before it is visible
+    private void afterCommit(Consumer<InvalidationBatch> change) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(change);
+            }
+        });
+    }
+
+    private synchronized void record(Consumer<InvalidationBatch> change) {
+        change.accept(pending);
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidation.flush-ms:100}")
+    public void flush() {
+        InvalidationBatch batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new InvalidationBatch();
+        }
+        List<String> payloads = batch.encode(node, MAX_PAYLOAD);
+        for (int i = 0; i < payloads.size(); i++) {
+            try {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payloads.get(i));
+                sent.increment();
+            } catch (DataAccessException e) {
+                // Whatever was not sent goes out with the next flush, merged under changes recorded since
+                logger.warn("Could not send cache invalidation: {}", e.getMessage());
+                requeue(payloads.subList(i, payloads.size()));
+                return;
+            }
+        }
+    }
+
+    private synchronized void requeue(List<String> payloads) {
+        InvalidationBatch unsent = new InvalidationBatch();
+        payloads.forEach(payload -> unsent.merge(InvalidationBatch.decode(payload).batch()));
+        unsent.merge(pending);
+        pending = unsent;
+    }
+
+    // LISTEN starts before the caches load on ApplicationReadyEvent, so no change committed during the load is
+    // missed; notifications are only applied once the caches are loaded and the instance accepts traffic
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!enabled || listener != null) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().name("cache-invalidation").daemon().start(this::listen);
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            ready.countDown();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listener;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeConnection();
+        flush();
+    }
+
+    private void listen() {
+        long backoffMs = 100;
+        boolean connectedBefore = false;
+        while (running) {
+            try {
+                connect();
+                backoffMs = 100;
+                ready.await();
+                if (connectedBefore) {
+                    reconnects.increment();
+                    logger.info("Cache invalidation listener reconnected, reloading caches");
+                    publish(new CacheResyncEvent());
+                }
+                connectedBefore = true;
+                poll();
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener disconnected, retrying in {} ms: {}", backoffMs,
+                            e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                closeConnection();
+            }
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+        }
+    }
+
+    private void connect() throws SQLException {
+        Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        connection = listening;
+        try (Statement statement = listening.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    private void poll() throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastActivity = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+            long now = System.currentTimeMillis();
+            if (notifications != null && notifications.length > 0) {
+                lastActivity = now;
+                apply(notifications);
+            } else if (now - lastActivity >= keepaliveMs) {
+                // A dead connection otherwise only shows up as silence
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastActivity = now;
+            }
+        }
+    }
+
+    // Everything that arrived in one poll is merged into one event, so a burst from several nodes is read back once.
+    // A notification that cannot be decoded is dropped on its own; it must not end the listener thread.
+    void apply(PGNotification[] notifications) {
+        InvalidationBatch batch = new InvalidationBatch();
+        for (PGNotification notification : notifications) {
+            InvalidationBatch.Decoded decoded;
+            try {
+                decoded = InvalidationBatch.decode(notification.getParameter());
+            } catch (RuntimeException e) {
+                malformed.increment();
+                logger.warn("Dropped malformed cache invalidation from backend {}: {}", notification.getPID(),
+                        e.getMessage());
+                continue;
+            }
+            if (!node.equals(decoded.node())) {
+                received.increment();
+                batch.merge(decoded.batch());
+            }
+        }
+        if (!batch.isEmpty()) {
+            publish(batch.toEvent());
+        }
+    }
+
+    private void publish(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // A failing cache must not end the listener thread
+            logger.error("Cache invalidation listener failed", e);
+        }
+    }
+
+    private void closeConnection() {
+        Connection closing = connection;
+        connection = null;
+        if (closing != null) {
+            try {
+                closing.close();
+            } catch (SQLException e) {
+                // already gone
+            }
+        }
+    }
+}
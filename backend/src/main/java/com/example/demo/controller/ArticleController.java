@@ -1,24 +1,51 @@
 package com.example.demo.controller;
 
+import com.example.demo.index.TagIndex;
 import com.example.demo.model.Article;
 import com.example.demo.model.User;
+import com.example.demo.payload.request.ArticleFields;
 import com.example.demo.payload.request.ArticleRequest;
+import com.example.demo.payload.response.ArticleBatchResponse;
 import com.example.demo.payload.response.ArticleResponse;
+import com.example.demo.payload.response.ArticleSearchResult;
+import com.example.demo.payload.response.TimelineResponse;
 import com.example.demo.service.ArticleService;
+import com.example.demo.service.ArticleViewService;
+import com.example.demo.service.FeedService;
+import com.example.demo.service.ImageService;
+import com.example.demo.service.LikeStreamService;
+import com.example.demo.service.RelatedArticleService;
+import com.example.demo.service.SuggestionService;
+import com.example.demo.service.TagService;
+import com.example.demo.service.TimelineService;
+import com.example.demo.service.TrendingService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,6 +55,11 @@ import java.util.stream.Collectors;
         methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
         allowCredentials = "true")
 public class ArticleController {
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    private static final int MAX_TRENDING_LIMIT = 100;
+    private static final int MAX_TIMELINE_PAGE_SIZE = 50;
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    private static final int MAX_BATCH_SIZE = 100;
 
     @Autowired
     private ArticleService articleService;
@@ -35,21 +67,148 @@ public class ArticleController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private LikeStreamService likeStreamService;
+
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    @Autowired
+    private RelatedArticleService relatedArticleService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private FeedService feedService;
+
     @GetMapping
     public ResponseEntity<?> getAllArticles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(defaultValue = "true") boolean totals,
+            @RequestParam(defaultValue = "") ArticleFields fields,
             Authentication authentication) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Article> articles = articleService.getAllArticles(pageable);
+        if (tags != null && !tags.isEmpty()) {
+            if (!match.equals("all") && !match.equals("any")) {
+                return ResponseEntity.badRequest().body("match must be 'all' or 'any'");
+            }
+            // Tag filters are answered by the bitmap index, already newest first
+            TagIndex.Result tagged = tagService.findArticleIds(tags, match.equals("all"), pageable);
+            List<ArticleResponse> taggedResponses = convertToResponses(
+                    articleService.getArticlesWithAuthorsByIds(tagged.articleIds()), authentication, fields);
+            return ResponseEntity.ok(fields.apply(new PageImpl<>(taggedResponses, pageable, tagged.total())));
+        }
+        // totals=false returns a Slice: no totalElements/totalPages, only whether there is a next page
+        Slice<Article> articles = totals
+                ? articleService.getAllArticles(pageable)
+                : articleService.getArticleSlice(pageable);
+
+        return ResponseEntity.ok(fields.apply(convertToResponses(articles, authentication, fields)));
+    }
+
+    // Anonymous feed rendered by the database and streamed as is; same document shape as GET /api/articles
+    @GetMapping("/feed")
+    public void getFeed(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            HttpServletResponse response) throws IOException {
+
+        if (!feedService.isEnabled()) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Feed is not available");
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        feedService.writePage(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE),
+                response.getOutputStream());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchArticles(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        if (!articleService.isSearchEnabled()) {
+            return ResponseEntity.status(503).body("Search is not available");
+        }
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().body("Search query is required");
+        }
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE));
+        Page<ArticleSearchResult> results = articleService.searchArticles(query.trim(), pageable);
+
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingArticles(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication) {
+
+        List<Long> ids = trendingService.topArticleIds(Math.min(Math.max(limit, 1), MAX_TRENDING_LIMIT));
+        List<ArticleResponse> articleResponses = convertToResponses(
+                articleService.getArticlesWithAuthorsByIds(ids), authentication, fields);
+
+        return ResponseEntity.ok(fields.apply(articleResponses));
+    }
 
-        // Convert to response DTOs with like status
-        Page<ArticleResponse> articleResponses = articles.map(article ->
-                convertToResponse(article, authentication)
-        );
+    // Titles and usernames for search-as-you-type. Only the most liked matches of the typed words are
+    // considered, so a rarely liked title may be missing even though it matches (see PrefixIndex.search).
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit) {
 
-        return ResponseEntity.ok(articleResponses);
+        return ResponseEntity.ok(suggestionService.suggest(prefix, Math.max(limit, 1)));
+    }
+
+    // Several articles by id or by slug (bookmarks, recommendations) in three queries instead of a request each.
+    // Duplicates are answered once, at their first position.
+    @GetMapping("/batch")
+    public ResponseEntity<?> getArticlesBatch(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) List<String> slugs,
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication) {
+
+        if ((ids == null) == (slugs == null)) {
+            return ResponseEntity.badRequest().body("Either ids or slugs is required");
+        }
+        List<?> requested = new ArrayList<>(new LinkedHashSet<>(ids != null ? ids : slugs));
+        if (requested.isEmpty() || requested.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("Between 1 and " + MAX_BATCH_SIZE + " articles can be requested");
+        }
+
+        List<Article> articles;
+        Set<Object> found = new HashSet<>();
+        if (ids != null) {
+            articles = articleService.getArticlesWithAuthorsByIds(new LinkedHashSet<>(ids));
+            articles.forEach(article -> found.add(article.getId()));
+        } else {
+            articles = articleService.getArticlesWithAuthorsBySlugs(new LinkedHashSet<>(slugs));
+            articles.forEach(article -> found.add(article.getSlug()));
+        }
+        List<?> missing = requested.stream().filter(key -> !found.contains(key)).toList();
+
+        return ResponseEntity.ok(fields.apply(
+                new ArticleBatchResponse(convertToResponses(articles, authentication, fields), missing)));
     }
 
     @PostMapping
@@ -77,6 +236,7 @@ public class ArticleController {
             article.setContent(articleRequest.getContent());
             article.setSlug(articleRequest.getSlug());
             article.setImageUrl(articleRequest.getImageUrl());
+            article.setTags(TagIndex.normalize(articleRequest.getTags()));
             article.setAuthor(author);
             article.setCreatedAt(LocalDateTime.now());
 
@@ -92,12 +252,19 @@ public class ArticleController {
     @GetMapping("/slug/{slug}")
     public ResponseEntity<?> getArticleBySlug(
             @PathVariable String slug,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication,
+            HttpServletRequest request) {
 
         Optional<Article> article = articleService.getArticleBySlug(slug);
         if (article.isPresent()) {
-            ArticleResponse response = convertToResponse(article.get(), authentication);
-            return ResponseEntity.ok(response);
+            articleViewService.recordView(article.get().getId(), viewerOf(authentication, request));
+            ArticleResponse response = convertToResponse(article.get(), authentication, fields);
+            // Only detail responses carry the body
+            if (fields.includes("content")) {
+                response.setContent(articleService.getContent(article.get().getId()).orElse(null));
+            }
+            return ResponseEntity.ok(fields.apply(response));
         }
         return ResponseEntity.notFound().build();
     }
@@ -105,16 +272,39 @@ public class ArticleController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getArticleById(
             @PathVariable Long id,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication,
+            HttpServletRequest request) {
 
         Optional<Article> article = articleService.getArticleById(id);
         if (article.isPresent()) {
-            ArticleResponse response = convertToResponse(article.get(), authentication);
-            return ResponseEntity.ok(response);
+            articleViewService.recordView(article.get().getId(), viewerOf(authentication, request));
+            ArticleResponse response = convertToResponse(article.get(), authentication, fields);
+            // Only detail responses carry the body
+            if (fields.includes("content")) {
+                response.setContent(articleService.getContent(article.get().getId()).orElse(null));
+            }
+            return ResponseEntity.ok(fields.apply(response));
         }
         return ResponseEntity.notFound().build();
     }
 
+    // "Readers also liked", from the precomputed co-like neighbors of the article
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedArticles(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication) {
+
+        List<Long> ids = relatedArticleService.relatedArticleIds(id,
+                Math.min(Math.max(limit, 1), relatedArticleService.getTopK()));
+        List<ArticleResponse> articleResponses = convertToResponses(
+                articleService.getArticlesWithAuthorsByIds(ids), authentication, fields);
+
+        return ResponseEntity.ok(fields.apply(articleResponses));
+    }
+
     @PostMapping("/{articleId}/likes")
     public ResponseEntity<?> toggleLike(
             @PathVariable Long articleId,
@@ -134,41 +324,140 @@ public class ArticleController {
         return ResponseEntity.notFound().build();
     }
 
+    // Server-Sent Events: a "likes" event with {articleId: likeCount} whenever counts of the given articles change
+    @GetMapping(value = "/likes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamLikeCounts(@RequestParam List<Long> ids) {
+        Set<Long> articleIds = new HashSet<>(ids);
+        if (articleIds.isEmpty() || articleIds.size() > likeStreamService.getMaxIds()) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+                    .body("Between 1 and " + likeStreamService.getMaxIds() + " article ids are required");
+        }
+
+        SseEmitter emitter = likeStreamService.subscribe(articleIds);
+        if (emitter == null) {
+            return ResponseEntity.status(503).contentType(MediaType.TEXT_PLAIN)
+                    .body("Too many live subscriptions, try again later");
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @GetMapping("/user/{username}")
     public ResponseEntity<?> getArticlesByUsername(
             @PathVariable String username,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean totals,
+            @RequestParam(defaultValue = "") ArticleFields fields,
             Authentication authentication) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Article> articles = articleService.getArticlesByUsername(username, pageable);
+        Slice<Article> articles = totals
+                ? articleService.getArticlesByUsername(username, pageable)
+                : articleService.getArticleSliceByUsername(username, pageable);
 
-        Page<ArticleResponse> articleResponses = articles.map(article ->
-                convertToResponse(article, authentication)
-        );
+        return ResponseEntity.ok(fields.apply(convertToResponses(articles, authentication, fields)));
+    }
+
+    // Home timeline of followed authors; pass nextCursor from the previous page to continue
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication) {
 
-        return ResponseEntity.ok(articleResponses);
+        if (authentication == null) {
+            return ResponseEntity.status(401).body("Authentication required");
+        }
+
+        Optional<User> user = userService.findByUsername(authentication.getName());
+        if (user.isEmpty()) {
+            return ResponseEntity.status(401).body("Authentication required");
+        }
+
+        TimelineService.Page page;
+        try {
+            page = timelineService.getTimeline(user.get().getId(), cursor,
+                    Math.min(Math.max(size, 1), MAX_TIMELINE_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        List<ArticleResponse> articleResponses = convertToResponses(
+                articleService.getArticlesWithAuthorsByIds(page.articleIds()), authentication, fields);
+
+        return ResponseEntity.ok(fields.apply(new TimelineResponse(articleResponses, page.nextCursor())));
     }
 
     @GetMapping("/user")
-    public ResponseEntity<?> getCurrentUserArticles(Authentication authentication) {
+    public ResponseEntity<?> getCurrentUserArticles(
+            @RequestParam(defaultValue = "") ArticleFields fields,
+            Authentication authentication) {
         if (authentication == null) {
             return ResponseEntity.status(401).body("Authentication required");
         }
 
         String username = authentication.getName();
+        // All by the caller, whose user is already loaded
         List<Article> articles = articleService.getArticlesByUsername(username);
 
-        List<ArticleResponse> articleResponses = articles.stream()
-                .map(article -> convertToResponse(article, authentication))
+        return ResponseEntity.ok(fields.apply(convertToResponses(articles, authentication, fields)));
+    }
+
+    private String viewerOf(Authentication authentication, HttpServletRequest request) {
+        return authentication != null ? "user:" + authentication.getName() : "ip:" + request.getRemoteAddr();
+    }
+
+    // The slice only decides which articles are on the page. They are read again with their authors, so a page
+    // by many authors costs no query per author; pages keep their total.
+    private Slice<ArticleResponse> convertToResponses(Slice<Article> articles, Authentication authentication,
+                                                      ArticleFields fields) {
+        List<Article> withAuthors = fields.includes("authorUsername")
+                ? articleService.getArticlesWithAuthorsByIds(articles.map(Article::getId).getContent())
+                : articles.getContent();
+        List<ArticleResponse> responses = convertToResponses(withAuthors, authentication, fields);
+        return articles instanceof Page<Article> page
+                ? new PageImpl<>(responses, page.getPageable(), page.getTotalElements())
+                : new SliceImpl<>(responses, articles.getPageable(), articles.hasNext());
+    }
+
+    // Like counts, like status and view totals of all articles in one query each
+    List<ArticleResponse> convertToResponses(List<Article> articles, Authentication authentication,
+                                             ArticleFields fields) {
+        List<Long> ids = articles.stream().map(Article::getId).toList();
+        Map<Long, Long> likeCounts = fields.includes("likeCount") ? articleService.countLikes(ids) : Map.of();
+        Set<Long> liked = authentication != null && fields.includes("hashLiked")
+                ? articleService.getLikedArticleIds(ids, authentication.getName())
+                : Set.of();
+        Map<Long, ArticleViewService.Totals> views = viewTotals(ids, fields);
+        return articles.stream()
+                .map(article -> convertToResponse(article, fields, likeCounts.getOrDefault(article.getId(), 0L),
+                        liked.contains(article.getId()), views.get(article.getId())))
                 .collect(Collectors.toList());
+    }
 
-        return ResponseEntity.ok(articleResponses);
+    ArticleResponse convertToResponse(Article article, Authentication authentication) {
+        return convertToResponse(article, authentication, ArticleFields.ALL);
     }
 
     // Helper method to convert Article to ArticleResponse with proper hashLiked value
-    private ArticleResponse convertToResponse(Article article, Authentication authentication) {
+    ArticleResponse convertToResponse(Article article, Authentication authentication, ArticleFields fields) {
+        long likeCount = fields.includes("likeCount") ? articleService.countLikes(article.getId()) : 0;
+        // Set hashLiked based on current user's like status
+        boolean liked = authentication != null && fields.includes("hashLiked")
+                && articleService.hasUserLiked(article.getId(), authentication.getName());
+        return convertToResponse(article, fields, likeCount, liked,
+                viewTotals(List.of(article.getId()), fields).get(article.getId()));
+    }
+
+    private Map<Long, ArticleViewService.Totals> viewTotals(List<Long> ids, ArticleFields fields) {
+        return fields.includes("viewCount") || fields.includes("uniqueViewers")
+                ? articleViewService.getTotals(ids)
+                : Map.of();
+    }
+
+    // Fields that are not requested stay unset; the author is only loaded for its username
+    private ArticleResponse convertToResponse(Article article, ArticleFields fields, long likeCount, boolean liked,
+                                              ArticleViewService.Totals views) {
         ArticleResponse response = new ArticleResponse();
         response.setId(article.getId());
         response.setTitle(article.getTitle());
@@ -176,19 +465,23 @@ public class ArticleController {
         response.setSlug(article.getSlug());
         response.setContent(article.getContent());
         response.setImageUrl(article.getImageUrl());
+        if (fields.includes("thumbnailUrl")) {
+            response.setThumbnailUrl(ImageService.thumbnailUrlFor(article.getImageUrl()));
+        }
+        response.setTags(article.getTags());
         response.setCreatedAt(article.getCreatedAt());
-        response.setAuthorUsername(article.getAuthor().getUsername());
+        if (fields.includes("authorUsername")) {
+            response.setAuthorUsername(article.getAuthor().getUsername());
+        }
         response.setAuthorId(article.getAuthor().getId());
-        response.setLikeCount(articleService.countLikes(article.getId()));
-
-        // Set hashLiked based on current user's like status
-        if (authentication != null) {
-            String username = authentication.getName();
-            response.setHashLiked(articleService.hasUserLiked(article.getId(), username));
-        } else {
-            response.setHashLiked(false);
+        response.setLikeCount(likeCount);
+        if (fields.includes("viewCount")) {
+            response.setViewCount(views.views());
         }
-
+        if (fields.includes("uniqueViewers")) {
+            response.setUniqueViewers(views.uniqueViewers());
+        }
+        response.setHashLiked(liked);
         return response;
     }
 } 
\ No newline at end of file
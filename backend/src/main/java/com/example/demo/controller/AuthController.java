@@ -1,5 +1,6 @@
 package com.example.demo.controller;
 
+import com.example.demo.event.UserRegisteredEvent;
 import com.example.demo.model.Role;
 import com.example.demo.model.User;
 import com.example.demo.payload.request.LoginRequest;
@@ -13,7 +14,10 @@ import com.example.demo.security.service.UserDetailsImpl;
 import com.example.demo.service.EmailService;
 import com.example.demo.service.UserService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,6 +37,8 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     AuthenticationManager authenticationManager;
 
@@ -54,6 +60,9 @@ public class AuthController {
     @Autowired
     UserService userService;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -85,7 +94,7 @@ public class AuthController {
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         try {
-            System.out.println("Signup request received for: " + signUpRequest.getUsername());
+            logger.debug("Signup request for {}", signUpRequest.getUsername());
 
             if (userRepository.existsByUsername(signUpRequest.getUsername())) {
                 return ResponseEntity
@@ -110,31 +119,25 @@ public class AuthController {
             String token = UUID.randomUUID().toString();
             user.setConfirmationToken(token);
 
-            System.out.println("Looking for ROLE_USER");
             Role userRole = roleRepository.findByName(Role.ERole.ROLE_USER)
                     .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
 
-            System.out.println("Role found: " + userRole.getName());
             Set<Role> roles = new HashSet<>();
             roles.add(userRole);
             user.setRoles(roles);
 
-            System.out.println("Saving user");
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserRegisteredEvent(user));
 
-            System.out.println("Sending confirmation email");
             try {
                 emailService.sendConfirmationEmail(user);
-                System.out.println("Email sent successfully");
             } catch (Exception e) {
-                System.err.println("Failed to send email: " + e.getMessage());
-                e.printStackTrace();
+                logger.warn("Confirmation email for {} could not be sent", user.getUsername(), e);
             }
 
             return ResponseEntity.ok(new MessageResponse("User registered successfully! Please check your email to activate your account."));
         } catch (Exception e) {
-            System.err.println("Error in signup: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Signup failed for {}", signUpRequest.getUsername(), e);
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Error: " + e.getMessage()));
@@ -0,0 +1,111 @@
+package com.example.demo.controller;
+
+import com.example.demo.payload.response.ImageUploadResponse;
+import com.example.demo.service.ImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Globals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+        allowedHeaders = "*",
+        methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS},
+        allowCredentials = "true")
+public class ImageController {
+    // Names are content hashes, so a file never changes
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+    // Below this, copying is cheaper than setting up sendfile; the same default as Tomcat's DefaultServlet
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    @Autowired
+    private ImageService imageService;
+
+    @PostMapping
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).body("Authentication required");
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("Image file is required");
+        }
+
+        String name;
+        try {
+            name = imageService.store(file.getBytes());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).body("Image processing is busy, try again later");
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Upload could not be read");
+        }
+
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(ImageService.URL_PREFIX + name).toUriString();
+        return ResponseEntity.ok(new ImageUploadResponse(url, ImageService.thumbnailUrlFor(url)));
+    }
+
+    @GetMapping("/{name}")
+    public void getOriginal(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        send(imageService.original(name), name, request, response);
+    }
+
+    @GetMapping("/" + ImageService.THUMBNAIL_PATH + "{name}")
+    public void getThumbnail(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        send(imageService.thumbnail(name), name, request, response);
+    }
+
+    private void send(Path path, String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (path == null || !Files.isRegularFile(path)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + name + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(path);
+        response.setContentType(ImageService.contentType(name));
+        response.setContentLengthLong(length);
+
+        // Tomcat's NIO connector sends the file with sendfile(2) once the handler returns
+        if (Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR)) && length >= SENDFILE_MIN_BYTES) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, path.toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, 0L);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+}
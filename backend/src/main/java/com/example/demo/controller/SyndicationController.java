@@ -0,0 +1,71 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.SyndicationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+public class SyndicationController {
+    // Short enough for new articles to show up soon; revalidating afterwards is a 304 from memory
+    private static final String CACHE_CONTROL = "public, max-age=300";
+
+    @Autowired
+    private SyndicationService syndicationService;
+
+    @GetMapping("/sitemap.xml")
+    public void getSitemap(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(syndicationService.sitemap(), "application/xml", request, response);
+    }
+
+    @GetMapping("/sitemap-{number:\\d{1,9}}.xml")
+    public void getSitemapShard(@PathVariable int number, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        send(syndicationService.sitemapShard(number), "application/xml", request, response);
+    }
+
+    @GetMapping("/rss.xml")
+    public void getRss(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(syndicationService.rss(), "application/rss+xml", request, response);
+    }
+
+    @GetMapping("/atom.xml")
+    public void getAtom(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(syndicationService.atom(), "application/atom+xml", request, response);
+    }
+
+    private void send(SyndicationService.Document document, String contentType, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        if (document == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        // Each encoding gets its own strong tag; either one still matches the same content
+        String etag = "\"" + document.etag() + (gzip ? "-gzip" : "") + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(document.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = gzip ? document.gzipped() : document.body();
+        response.setContentType(contentType + ";charset=UTF-8");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
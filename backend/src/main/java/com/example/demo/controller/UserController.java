@@ -0,0 +1,60 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.AuthorStats;
+import com.example.demo.payload.response.AuthorStatsResponse;
+import com.example.demo.payload.response.MessageResponse;
+import com.example.demo.service.AuthorStatsService;
+import com.example.demo.service.FollowService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"},
+        allowedHeaders = "*",
+        methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS},
+        allowCredentials = "true")
+public class UserController {
+
+    @Autowired
+    private AuthorStatsService authorStatsService;
+
+    @Autowired
+    private FollowService followService;
+
+    @GetMapping("/{username}/stats")
+    public ResponseEntity<?> getAuthorStats(@PathVariable String username) {
+        AuthorStats stats = authorStatsService.getStats(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+
+        return ResponseEntity.ok(new AuthorStatsResponse(username, stats.getArticleCount(),
+                stats.getLikeCount(), stats.getRecentLikeCount(), stats.getFollowerCount()));
+    }
+
+    @PostMapping("/{username}/follow")
+    public ResponseEntity<?> follow(@PathVariable String username, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).body("Authentication required");
+        }
+
+        try {
+            boolean changed = followService.follow(authentication.getName(), username);
+            return ResponseEntity.ok(new MessageResponse(changed ? "Following " + username : "Already following " + username));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{username}/follow")
+    public ResponseEntity<?> unfollow(@PathVariable String username, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).body("Authentication required");
+        }
+
+        boolean changed = followService.unfollow(authentication.getName(), username);
+        return ResponseEntity.ok(new MessageResponse(changed ? "Unfollowed " + username : "Not following " + username));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+import com.example.demo.model.Article;
+
+// Published by ArticleService after an article has been deleted; the entity is detached
+public record ArticleDeletedEvent(Article article) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+import com.example.demo.model.Article;
+
+// Published by ArticleService after an article has been inserted or updated
+public record ArticleSavedEvent(Article article, boolean created) {
+}
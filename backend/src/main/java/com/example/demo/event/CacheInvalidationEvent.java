@@ -0,0 +1,27 @@
+package com.example.demo.event;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Published by InvalidationBus for changes committed on other nodes; the local events for them were only seen
+// there. Created and deleted articles map to their author's id, likes to the net change in like count.
+public record CacheInvalidationEvent(Map<Long, Long> createdArticles, Set<Long> updatedArticles,
+                                     Map<Long, Long> deletedArticles, Map<Long, Integer> likeDeltas,
+                                     Set<Long> registeredUsers) {
+
+    // Articles whose current state has to be read back
+    public Set<Long> changedArticleIds() {
+        Set<Long> ids = new HashSet<>(createdArticles.keySet());
+        ids.addAll(updatedArticles);
+        return ids;
+    }
+
+    // Users whose article count or existence changed
+    public Set<Long> changedUserIds() {
+        Set<Long> ids = new HashSet<>(createdArticles.values());
+        ids.addAll(deletedArticles.values());
+        ids.addAll(registeredUsers);
+        return ids;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.event;
+
+// Published by InvalidationBus after its connection was lost: changes made elsewhere in the meantime were missed,
+// so in-memory caches reload from the database
+public record CacheResyncEvent() {
+}
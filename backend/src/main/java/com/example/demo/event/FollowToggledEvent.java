@@ -0,0 +1,5 @@
+package com.example.demo.event;
+
+// Published by FollowService when a user starts or stops following an author
+public record FollowToggledEvent(Long followerId, Long authorId, boolean following) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+import java.time.LocalDateTime;
+
+// Published by ArticleService.toggleLike; likedAt is the creation time of the like that was added or removed
+public record LikeToggledEvent(Long articleId, Long authorId, Long userId, boolean liked, LocalDateTime likedAt) {
+}
@@ -0,0 +1,7 @@
+package com.example.demo.event;
+
+import com.example.demo.model.User;
+
+// Published after a new account has been saved during signup
+public record UserRegisteredEvent(User user) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.exception;
+
+public class StatementBudgetExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StatementBudgetExceededException(String endpoint, int statements, int budget) {
+        super(String.format("%s executed %d SQL statements, budget is %d", endpoint, statements, budget));
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.demo.index;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Item-to-item "liked together" similarity over (user, article) likes.
+//
+// Likes are held as compressed sparse rows over dense int indices: articles per user, and its transpose, users
+// per article. The neighbors of article i are found by walking users(i) -> articles(u) and accumulating co-like
+// counts in a dense scratch array, then scored with cosine similarity co(i, j) / sqrt(likes(i) * likes(j)).
+// Articles are processed in parallel by a fork/join pool, each worker with its own scratch arrays.
+public class CoLikeSimilarity {
+
+    private static final int LEAF_ARTICLES = 256;
+
+    // Dense article index -> article id, and the inverse
+    private final long[] articleIds;
+    private final LongIntHashMap articleIndex;
+    // Articles liked by user u: userArticles[userOffsets[u] .. userOffsets[u + 1])
+    private final int[] userOffsets;
+    private final int[] userArticles;
+    // Users who liked article a: articleUsers[articleOffsets[a] .. articleOffsets[a + 1])
+    private final int[] articleOffsets;
+    private final int[] articleUsers;
+    // Scratch arrays per fork/join worker, reused across its tasks
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private CoLikeSimilarity(long[] articleIds, LongIntHashMap articleIndex, int[] userOffsets, int[] userArticles) {
+        this.articleIds = articleIds;
+        this.articleIndex = articleIndex;
+        this.userOffsets = userOffsets;
+        this.userArticles = userArticles;
+
+        int articles = articleIds.length;
+        articleOffsets = new int[articles + 1];
+        for (int article : userArticles) {
+            articleOffsets[article + 1]++;
+        }
+        for (int a = 0; a < articles; a++) {
+            articleOffsets[a + 1] += articleOffsets[a];
+        }
+        articleUsers = new int[userArticles.length];
+        int[] next = Arrays.copyOf(articleOffsets, articles);
+        for (int u = 0; u + 1 < userOffsets.length; u++) {
+            for (int p = userOffsets[u]; p < userOffsets[u + 1]; p++) {
+                articleUsers[next[userArticles[p]]++] = u;
+            }
+        }
+    }
+
+    public int articleCount() {
+        return articleIds.length;
+    }
+
+    public Neighbors topNeighbors(int k, ForkJoinPool pool) {
+        long[][] neighbors = new long[articleIds.length][];
+        pool.invoke(new NeighborTask(0, articleIds.length, k, neighbors));
+        return new Neighbors(articleIds, articleIndex, neighbors);
+    }
+
+    // Immutable result; lookups are a hash probe and an array read
+    public static class Neighbors {
+        private static final long[] NONE = new long[0];
+
+        private final long[] articleIds;
+        private final LongIntHashMap articleIndex;
+        private final long[][] neighbors;
+
+        private Neighbors(long[] articleIds, LongIntHashMap articleIndex, long[][] neighbors) {
+            this.articleIds = articleIds;
+            this.articleIndex = articleIndex;
+            this.neighbors = neighbors;
+        }
+
+        public static Neighbors of(long[] articleIds, long[][] neighbors) {
+            LongIntHashMap index = new LongIntHashMap(articleIds.length);
+            for (int i = 0; i < articleIds.length; i++) {
+                index.put(articleIds[i], i);
+            }
+            return new Neighbors(articleIds, index, neighbors);
+        }
+
+        public static Neighbors empty() {
+            return of(NONE, new long[0][]);
+        }
+
+        // Most similar first
+        public long[] get(long articleId) {
+            int index = articleIndex.get(articleId);
+            return index == LongIntHashMap.MISSING || neighbors[index] == null ? NONE : neighbors[index];
+        }
+
+        public int size() {
+            return articleIds.length;
+        }
+
+        public long articleIdAt(int index) {
+            return articleIds[index];
+        }
+
+        public long[] neighborsAt(int index) {
+            return neighbors[index] != null ? neighbors[index] : NONE;
+        }
+    }
+
+    // Accepts likes grouped by user (e.g. ordered by user id)
+    public static class Builder {
+        private final int maxLikesPerUser;
+        private final LongIntHashMap articleIndex = new LongIntHashMap(1024);
+        private long[] articleIds = new long[1024];
+        private int articles;
+        private int[] userOffsets = new int[1024];
+        private int users;
+        private int[] userArticles = new int[4096];
+        private int likes;
+        private long currentUser;
+        private boolean started;
+
+        // Users with more likes than maxLikesPerUser are skipped: they add little signal and cost quadratic work
+        public Builder(int maxLikesPerUser) {
+            this.maxLikesPerUser = maxLikesPerUser;
+        }
+
+        public void add(long userId, long articleId) {
+            if (!started || userId != currentUser) {
+                closeUser();
+                currentUser = userId;
+                started = true;
+            }
+            int article = articleIndex.get(articleId);
+            if (article == LongIntHashMap.MISSING) {
+                if (articles == articleIds.length) {
+                    articleIds = Arrays.copyOf(articleIds, articles * 2);
+                }
+                article = articles;
+                articleIds[articles++] = articleId;
+                articleIndex.put(articleId, article);
+            }
+            if (likes == userArticles.length) {
+                userArticles = Arrays.copyOf(userArticles, likes * 2);
+            }
+            userArticles[likes++] = article;
+        }
+
+        public CoLikeSimilarity build() {
+            closeUser();
+            int[] offsets = Arrays.copyOf(userOffsets, users + 1);
+            return new CoLikeSimilarity(Arrays.copyOf(articleIds, articles), articleIndex, offsets,
+                    Arrays.copyOf(userArticles, likes));
+        }
+
+        private void closeUser() {
+            int start = userOffsets[users];
+            int count = likes - start;
+            // A single like pairs with nothing
+            if (count < 2 || count > maxLikesPerUser) {
+                likes = start;
+                return;
+            }
+            if (users + 2 > userOffsets.length) {
+                userOffsets = Arrays.copyOf(userOffsets, userOffsets.length * 2);
+            }
+            userOffsets[++users] = likes;
+        }
+    }
+
+    private class NeighborTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int k;
+        private final long[][] neighbors;
+
+        NeighborTask(int from, int to, int k, long[][] neighbors) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.neighbors = neighbors;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_ARTICLES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new NeighborTask(from, middle, k, neighbors), new NeighborTask(middle, to, k, neighbors));
+                return;
+            }
+            Scratch buffers = scratch.get();
+            TopK top = new TopK(k);
+            for (int a = from; a < to; a++) {
+                neighbors[a] = neighborsOf(a, buffers.coLikes, buffers.touched, top);
+            }
+        }
+    }
+
+    private long[] neighborsOf(int article, int[] coLikes, int[] touched, TopK top) {
+        int touchedCount = 0;
+        for (int p = articleOffsets[article]; p < articleOffsets[article + 1]; p++) {
+            int user = articleUsers[p];
+            for (int q = userOffsets[user]; q < userOffsets[user + 1]; q++) {
+                int other = userArticles[q];
+                if (other != article && coLikes[other]++ == 0) {
+                    touched[touchedCount++] = other;
+                }
+            }
+        }
+
+        top.clear();
+        double likes = degree(article);
+        for (int t = 0; t < touchedCount; t++) {
+            int other = touched[t];
+            top.offer(other, coLikes[other] / Math.sqrt(likes * degree(other)));
+            coLikes[other] = 0;
+        }
+        return top.drain(articleIds);
+    }
+
+    private final class Scratch {
+        final int[] coLikes = new int[articleIds.length];
+        final int[] touched = new int[articleIds.length];
+    }
+
+    private int degree(int article) {
+        return articleOffsets[article + 1] - articleOffsets[article];
+    }
+
+    // Bounded min-heap on parallel primitive arrays; ties prefer the lower article index
+    private static final class TopK {
+        private final int[] items;
+        private final double[] scores;
+        private int size;
+
+        TopK(int k) {
+            items = new int[k];
+            scores = new double[k];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void offer(int item, double score) {
+            if (items.length == 0) {
+                return;
+            }
+            if (size < items.length) {
+                items[size] = item;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (better(item, score, items[0], scores[0])) {
+                items[0] = item;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        long[] drain(long[] articleIds) {
+            long[] result = new long[size];
+            while (size > 0) {
+                result[size - 1] = articleIds[items[0]];
+                size--;
+                items[0] = items[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private static boolean better(int item, double score, int otherItem, double otherScore) {
+            return score > otherScore || (score == otherScore && item < otherItem);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(items[parent], scores[parent], items[i], scores[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int worst = i;
+                if (left < size && better(items[worst], scores[worst], items[left], scores[left])) {
+                    worst = left;
+                }
+                if (left + 1 < size && better(items[worst], scores[worst], items[left + 1], scores[left + 1])) {
+                    worst = left + 1;
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int item = items[a];
+            items[a] = items[b];
+            items[b] = item;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
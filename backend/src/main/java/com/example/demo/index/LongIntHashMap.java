@@ -0,0 +1,69 @@
+package com.example.demo.index;
+
+// Open-addressing long -> int map with linear probing, for dense ids of large key sets without boxing.
+// Values must be non-negative; not thread safe, but safe to read concurrently once fully built.
+public class LongIntHashMap {
+    public static final int MISSING = -1;
+
+    private long[] keys;
+    // value + 1, so 0 marks an empty slot
+    private int[] slots;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        slots = new int[capacity];
+    }
+
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = index(key, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return slots[i] - 1;
+            }
+        }
+        return MISSING;
+    }
+
+    public void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must be non-negative");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (slots[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (slots[i] == 0) {
+            size++;
+        }
+        keys[i] = key;
+        slots[i] = value + 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = new long[oldKeys.length * 2];
+        slots = new int[oldSlots.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                put(oldKeys[i], oldSlots[i] - 1);
+            }
+        }
+    }
+
+    private static int index(long key, int mask) {
+        long hash = key * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
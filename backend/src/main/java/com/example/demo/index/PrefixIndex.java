@@ -0,0 +1,336 @@
+package com.example.demo.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Trie over normalized tokens where every node caches the top entries (by weight) of its subtree,
+// so a prefix lookup costs O(prefix length + limit) no matter how many entries match.
+// Writes are serialized on the index; reads walk immutable snapshots (children and top arrays are
+// replaced, never mutated) and need no locking. A node with one child and no entries of its own shares the
+// child's top array, so the chain of nodes spelling out a long word holds one array, not one per letter.
+public class PrefixIndex {
+
+    public enum Type { ARTICLE, USER }
+
+    public record Entry(Type type, long id, String label, String slug, String owner, long weight) {
+        long key() {
+            return id << 1 | type.ordinal();
+        }
+    }
+
+    private static final int MAX_TOKEN_LENGTH = 32;
+    private static final int MAX_PHRASE_LENGTH = 64;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparingLong(Entry::key);
+
+    private final int capacity;
+    private final Node root = new Node();
+    // key -> indexed entry, guarded by this
+    private final Map<Long, Indexed> entries = new HashMap<>();
+
+    private record Indexed(Entry entry, Set<String> tokens) {
+    }
+
+    public PrefixIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    // Every word of the text plus its first two words as a phrase, so "spring bo" ranks within the titles that
+    // start with "Spring Boot" rather than all that mention "spring". Queries of several words are checked
+    // against the whole label, see search.
+    public static Set<String> tokens(String text) {
+        String normalized = normalize(text);
+        Set<String> tokens = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return tokens;
+        }
+        for (String word : normalized.split(" ")) {
+            tokens.add(truncate(word, MAX_TOKEN_LENGTH));
+        }
+        if (normalized.indexOf(' ') > 0) {
+            tokens.add(phrase(normalized));
+        }
+        return tokens;
+    }
+
+    private static String phrase(String normalized) {
+        int secondSpace = normalized.indexOf(' ', normalized.indexOf(' ') + 1);
+        return truncate(secondSpace > 0 ? normalized.substring(0, secondSpace) : normalized, MAX_PHRASE_LENGTH);
+    }
+
+    public synchronized void put(Entry entry, Set<String> tokens) {
+        remove(entry.type(), entry.id());
+        entries.put(entry.key(), new Indexed(entry, tokens));
+        for (String token : tokens) {
+            insert(token, entry);
+        }
+    }
+
+    public synchronized boolean remove(Type type, long id) {
+        long key = id << 1 | type.ordinal();
+        Indexed indexed = entries.remove(key);
+        if (indexed == null) {
+            return false;
+        }
+        for (String token : indexed.tokens()) {
+            delete(token, key);
+        }
+        return true;
+    }
+
+    // Changes the weight of an indexed entry and keeps its tokens; false when it is not indexed
+    public synchronized boolean addWeight(Type type, long id, long delta) {
+        Indexed indexed = entries.get(id << 1 | type.ordinal());
+        if (indexed == null) {
+            return false;
+        }
+        Entry entry = indexed.entry();
+        put(new Entry(entry.type(), entry.id(), entry.label(), entry.slug(), entry.owner(),
+                Math.max(0, entry.weight() + delta)), indexed.tokens());
+        return true;
+    }
+
+    public synchronized Entry get(Type type, long id) {
+        Indexed indexed = entries.get(id << 1 | type.ordinal());
+        return indexed != null ? indexed.entry() : null;
+    }
+
+    public synchronized Set<String> tokensOf(Type type, long id) {
+        Indexed indexed = entries.get(id << 1 | type.ordinal());
+        return indexed != null ? indexed.tokens() : Set.of();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // A query of several words matches where it starts at a word boundary of the label, so "boot tips for"
+    // finds "Spring Boot Tips for Beginners". Its candidates are the cached top entries of the phrase node and of
+    // the node of its longest word, so a match ranked below the top capacity of both is not returned.
+    public List<Entry> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        if (normalized.indexOf(' ') < 0 && normalized.length() <= MAX_TOKEN_LENGTH) {
+            Entry[] top = top(normalized);
+            return Arrays.asList(top).subList(0, Math.min(limit, top.length));
+        }
+        String longest = "";
+        for (String word : normalized.split(" ")) {
+            longest = word.length() > longest.length() ? word : longest;
+        }
+        Map<Long, Entry> candidates = new HashMap<>();
+        for (Entry entry : top(phrase(normalized))) {
+            candidates.put(entry.key(), entry);
+        }
+        for (Entry entry : top(truncate(longest, MAX_TOKEN_LENGTH))) {
+            candidates.put(entry.key(), entry);
+        }
+        String query = " " + normalized;
+        return candidates.values().stream()
+                .filter(entry -> (" " + normalize(entry.label())).contains(query))
+                .sorted(BY_WEIGHT)
+                .limit(limit)
+                .toList();
+    }
+
+    private Entry[] top(String token) {
+        Node node = root;
+        for (int i = 0; i < token.length() && node != null; i++) {
+            node = node.children.get(token.charAt(i));
+        }
+        return node != null ? node.top : NO_ENTRIES;
+    }
+
+    private void insert(String token, Entry entry) {
+        List<Node> path = path(token, true);
+        Node terminal = path.get(path.size() - 1);
+        terminal.own = append(terminal.own, entry);
+        // Bottom up, so a node sharing its child's array picks up the child's new one
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            node.top = sharesChildTop(node) ? node.children.nodes[0].top : offer(node.top, entry);
+        }
+    }
+
+    private void delete(String token, long key) {
+        List<Node> path = path(token, false);
+        if (path.size() != token.length() + 1) {
+            return;
+        }
+        Node terminal = path.get(path.size() - 1);
+        terminal.own = without(terminal.own, key);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (indexOf(node.top, key) >= 0) {
+                node.top = recompute(node);
+            }
+            if (i > 0 && node.own.length == 0 && node.children.isEmpty()) {
+                Node parent = path.get(i - 1);
+                parent.children = parent.children.without(token.charAt(i - 1));
+            }
+        }
+    }
+
+    private List<Node> path(String token, boolean create) {
+        List<Node> path = new ArrayList<>(token.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            Node child = node.children.get(c);
+            if (child == null) {
+                if (!create) {
+                    return path;
+                }
+                child = new Node();
+                node.children = node.children.with(c, child);
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private Entry[] offer(Entry[] top, Entry entry) {
+        if (indexOf(top, entry.key()) >= 0) {
+            return top;
+        }
+        if (top.length == capacity && BY_WEIGHT.compare(entry, top[top.length - 1]) >= 0) {
+            return top;
+        }
+        int position = Arrays.binarySearch(top, entry, BY_WEIGHT);
+        position = position >= 0 ? position : -position - 1;
+        int length = Math.min(top.length + 1, capacity);
+        Entry[] next = new Entry[length];
+        System.arraycopy(top, 0, next, 0, position);
+        next[position] = entry;
+        System.arraycopy(top, position, next, position + 1, length - position - 1);
+        return next;
+    }
+
+    private static boolean sharesChildTop(Node node) {
+        return node.own.length == 0 && node.children.nodes.length == 1;
+    }
+
+    private Entry[] recompute(Node node) {
+        if (sharesChildTop(node)) {
+            return node.children.nodes[0].top;
+        }
+        Map<Long, Entry> candidates = new HashMap<>();
+        for (Entry entry : node.own) {
+            candidates.put(entry.key(), entry);
+        }
+        for (Node child : node.children.nodes) {
+            for (Entry entry : child.top) {
+                candidates.put(entry.key(), entry);
+            }
+        }
+        return candidates.values().stream()
+                .sorted(BY_WEIGHT)
+                .limit(capacity)
+                .toArray(Entry[]::new);
+    }
+
+    private static int indexOf(Entry[] entries, long key) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].key() == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        Entry[] next = Arrays.copyOf(entries, entries.length + 1);
+        next[entries.length] = entry;
+        return next;
+    }
+
+    private static Entry[] without(Entry[] entries, long key) {
+        int index = indexOf(entries, key);
+        if (index < 0) {
+            return entries;
+        }
+        Entry[] next = new Entry[entries.length - 1];
+        System.arraycopy(entries, 0, next, 0, index);
+        System.arraycopy(entries, index + 1, next, index, entries.length - index - 1);
+        return next.length == 0 ? NO_ENTRIES : next;
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length).trim();
+    }
+
+    private static final class Node {
+        volatile Children children = Children.EMPTY;
+        volatile Entry[] top = NO_ENTRIES;
+        // Entries whose token ends exactly here; only touched by writers
+        Entry[] own = NO_ENTRIES;
+    }
+
+    // Immutable sorted child table, swapped as a whole so readers never see a half-updated pair of arrays
+    private record Children(char[] keys, Node[] nodes) {
+        static final Children EMPTY = new Children(new char[0], new Node[0]);
+
+        Node get(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? nodes[index] : null;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0;
+        }
+
+        Children with(char c, Node node) {
+            int index = -Arrays.binarySearch(keys, c) - 1;
+            char[] nextKeys = new char[keys.length + 1];
+            Node[] nextNodes = new Node[nodes.length + 1];
+            System.arraycopy(keys, 0, nextKeys, 0, index);
+            System.arraycopy(nodes, 0, nextNodes, 0, index);
+            nextKeys[index] = c;
+            nextNodes[index] = node;
+            System.arraycopy(keys, index, nextKeys, index + 1, keys.length - index);
+            System.arraycopy(nodes, index, nextNodes, index + 1, nodes.length - index);
+            return new Children(nextKeys, nextNodes);
+        }
+
+        Children without(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return this;
+            }
+            char[] nextKeys = new char[keys.length - 1];
+            Node[] nextNodes = new Node[nodes.length - 1];
+            System.arraycopy(keys, 0, nextKeys, 0, index);
+            System.arraycopy(nodes, 0, nextNodes, 0, index);
+            System.arraycopy(keys, index + 1, nextKeys, index, keys.length - index - 1);
+            System.arraycopy(nodes, index + 1, nextNodes, index, nodes.length - index - 1);
+            return new Children(nextKeys, nextNodes);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Tag -> compressed bitmap of articles, for AND / OR tag filters as bitmap intersections and unions.
+//
+// Bits are not article ids but ordinals assigned in createdAt order (the index is loaded oldest first and new
+// articles are appended), so reading a result bitmap backwards yields newest first, and page N is a rank select
+// instead of a sort. Writers are serialized and publish a new immutable snapshot, cloning only the bitmaps they
+// change; readers never lock.
+public class TagIndex {
+
+    public static final int MAX_TAGS = 10;
+    public static final int MAX_TAG_LENGTH = 32;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s_]+");
+    private static final Pattern INVALID = Pattern.compile("[^a-z0-9+#.-]");
+
+    public record Result(List<Long> articleIds, long total) {
+    }
+
+    // ordinalToArticleId is shared between snapshots; entries below size are never changed
+    private record Snapshot(Map<String, RoaringBitmap> bitmaps, long[] ordinalToArticleId, int size) {
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), new long[1024], 0);
+
+    // Guarded by this
+    private final LongIntHashMap ordinals = new LongIntHashMap(1024);
+    private final Map<Integer, List<String>> tagsByOrdinal = new HashMap<>();
+
+    // Lower case, separators as '-', without characters that cannot appear in a URL query unescaped
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag == null) {
+                continue;
+            }
+            String value = DIACRITICS.matcher(Normalizer.normalize(tag.trim(), Normalizer.Form.NFD)).replaceAll("");
+            value = INVALID.matcher(SEPARATORS.matcher(value.toLowerCase()).replaceAll("-")).replaceAll("");
+            if (!value.isEmpty() && value.length() <= MAX_TAG_LENGTH) {
+                normalized.add(value);
+            }
+            if (normalized.size() == MAX_TAGS) {
+                break;
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    // Fills an empty index in one pass, oldest article first, and publishes it once
+    public synchronized void load(Iterator<Map.Entry<Long, List<String>>> articles) {
+        if (snapshot.size() > 0) {
+            throw new IllegalStateException("Index is already loaded");
+        }
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+        long[] articleIds = snapshot.ordinalToArticleId();
+        int size = 0;
+        while (articles.hasNext()) {
+            Map.Entry<Long, List<String>> article = articles.next();
+            int ordinal = size++;
+            if (ordinal == articleIds.length) {
+                articleIds = Arrays.copyOf(articleIds, articleIds.length * 2);
+            }
+            articleIds[ordinal] = article.getKey();
+            ordinals.put(article.getKey(), ordinal);
+            if (!article.getValue().isEmpty()) {
+                article.getValue().forEach(tag -> bitmaps.computeIfAbsent(tag, t -> new RoaringBitmap()).add(ordinal));
+                tagsByOrdinal.put(ordinal, List.copyOf(article.getValue()));
+            }
+        }
+        bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        snapshot = new Snapshot(bitmaps, articleIds, size);
+    }
+
+    public int size() {
+        return snapshot.size();
+    }
+
+    // Adds a new article as the newest one, or replaces the tags of a known article
+    public synchronized void put(long articleId, Collection<String> tags) {
+        Snapshot current = snapshot;
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>(current.bitmaps());
+        long[] articleIds = current.ordinalToArticleId();
+        int size = current.size();
+
+        int ordinal = ordinals.get(articleId);
+        if (ordinal == LongIntHashMap.MISSING) {
+            ordinal = size++;
+            if (ordinal == articleIds.length) {
+                articleIds = Arrays.copyOf(articleIds, articleIds.length * 2);
+            }
+            articleIds[ordinal] = articleId;
+            ordinals.put(articleId, ordinal);
+        } else {
+            clear(bitmaps, ordinal);
+        }
+
+        List<String> added = List.copyOf(tags);
+        for (String tag : added) {
+            RoaringBitmap bitmap = bitmaps.get(tag);
+            bitmap = bitmap != null ? bitmap.clone() : new RoaringBitmap();
+            bitmap.add(ordinal);
+            bitmaps.put(tag, bitmap);
+        }
+        if (added.isEmpty()) {
+            tagsByOrdinal.remove(ordinal);
+        } else {
+            tagsByOrdinal.put(ordinal, added);
+        }
+        snapshot = new Snapshot(bitmaps, articleIds, size);
+    }
+
+    public synchronized void remove(long articleId) {
+        int ordinal = ordinals.get(articleId);
+        if (ordinal == LongIntHashMap.MISSING) {
+            return;
+        }
+        Snapshot current = snapshot;
+        Map<String, RoaringBitmap> bitmaps = new HashMap<>(current.bitmaps());
+        clear(bitmaps, ordinal);
+        tagsByOrdinal.remove(ordinal);
+        snapshot = new Snapshot(bitmaps, current.ordinalToArticleId(), current.size());
+    }
+
+    // Newest first; matchAll intersects the tags' bitmaps, otherwise they are unioned
+    public Result find(Collection<String> tags, boolean matchAll, long offset, int limit) {
+        Snapshot current = snapshot;
+        List<RoaringBitmap> matching = new ArrayList<>();
+        for (String tag : tags) {
+            RoaringBitmap bitmap = current.bitmaps().get(tag);
+            if (bitmap != null) {
+                matching.add(bitmap);
+            } else if (matchAll) {
+                return new Result(List.of(), 0);
+            }
+        }
+        if (matching.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        // Snapshot bitmaps are shared, so a single one is only read; aggregations return new bitmaps
+        RoaringBitmap result = matching.size() == 1 ? matching.get(0)
+                : matchAll ? FastAggregation.and(matching.iterator()) : FastAggregation.or(matching.iterator());
+        long total = result.getLongCardinality();
+        List<Long> articleIds = new ArrayList<>(limit);
+        for (long rank = total - 1 - offset; rank >= 0 && articleIds.size() < limit; rank--) {
+            articleIds.add(current.ordinalToArticleId()[result.select((int) rank)]);
+        }
+        return new Result(articleIds, total);
+    }
+
+    private void clear(Map<String, RoaringBitmap> bitmaps, int ordinal) {
+        for (String tag : tagsByOrdinal.getOrDefault(ordinal, List.of())) {
+            RoaringBitmap bitmap = bitmaps.get(tag).clone();
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(tag);
+            } else {
+                bitmaps.put(tag, bitmap);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Metrics for the pipeline set up in logback-spring.xml: events dropped by sampling and async queue depth
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            for (TurboFilter filter : context.getTurboFilterList()) {
+                if (filter instanceof SamplingTurboFilter sampling) {
+                    FunctionCounter.builder("logging.events.sampled.out", sampling, SamplingTurboFilter::getDropped)
+                            .description("Log events dropped by sampling")
+                            .register(registry);
+                }
+            }
+            if (context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC") instanceof AsyncAppender async) {
+                Gauge.builder("logging.async.queue.size", async, AsyncAppender::getNumberOfElementsInQueue)
+                        .description("Log events waiting for the console writer")
+                        .register(registry);
+                Gauge.builder("logging.async.queue.remaining", async, AsyncAppender::getRemainingCapacity)
+                        .description("Free slots in the log queue; INFO and below are discarded under 20%")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -6,7 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -25,7 +27,9 @@ public class Article {
     @Column(nullable = false)
     private String description;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // Stored in article_bodies and never loaded with the entity; set when an article is written,
+    // and read through ArticleService.getContent by the detail endpoints
+    @Transient
     private String content;
 
     @Column(name = "slug", nullable = false)
@@ -34,6 +38,11 @@ public class Article {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // Normalized by TagIndex.normalize; filtering by tag is served from the in-memory TagIndex
+    @Convert(converter = TagListConverter.class)
+    @Column(name = "tags", length = 500)
+    private List<String> tags = new ArrayList<>();
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
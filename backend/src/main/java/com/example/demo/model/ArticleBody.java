@@ -0,0 +1,48 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+// Article text, kept out of the articles table so list pages and lookups never read it.
+// data is UTF-8, LZ4 compressed when codec is LZ4 (see ArticleBodyService).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "article_bodies")
+public class ArticleBody implements Persistable<Long> {
+    public static final short RAW = 0;
+    public static final short LZ4 = 1;
+
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(nullable = false)
+    private short codec;
+
+    // Length of the UTF-8 text before compression
+    @Column(name = "raw_length", nullable = false)
+    private int rawLength;
+
+    // bytea on Postgres, where the length is ignored; 1 MiB is the largest VARBINARY Hibernate emits for H2
+    @Column(nullable = false, length = 1024 * 1024)
+    private byte[] data;
+
+    // Set for bodies of new articles, so saving them inserts without a select first
+    @Transient
+    private boolean created;
+
+    @Override
+    public Long getId() {
+        return articleId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.model;
+
+import com.example.demo.sketch.HyperLogLog;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// View totals flushed by ArticleViewService; sketch holds the HyperLogLog registers of all viewers so far
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "article_views")
+public class ArticleViews implements Persistable<Long> {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "view_count", nullable = false)
+    private long viewCount;
+
+    @Column(name = "unique_viewers", nullable = false)
+    private long uniqueViewers;
+
+    @Column(nullable = false, length = HyperLogLog.REGISTERS)
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Set for rows built by the flush, so saving them inserts without a select first
+    @Transient
+    private boolean created;
+
+    @Override
+    public Long getId() {
+        return articleId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+}
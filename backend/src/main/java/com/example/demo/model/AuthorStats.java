@@ -0,0 +1,39 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+// Per-author aggregates maintained by AuthorStatsService so profile pages never aggregate articles or likes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "author_stats")
+public class AuthorStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "article_count", nullable = false)
+    private long articleCount;
+
+    @Column(name = "like_count", nullable = false)
+    private long likeCount;
+
+    // Likes received in the last 30 days; kept current by increments and re-aligned by a scheduled refresh
+    @Column(name = "recent_like_count", nullable = false)
+    private long recentLikeCount;
+
+    // Default for rows that existed before the column; drives the timeline's fan-out threshold
+    @ColumnDefault("0")
+    @Column(name = "follower_count", nullable = false)
+    private long followerCount;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,41 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Snapshot written by RelatedArticleService; relatedIds lists article ids most similar first, comma separated
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "related_articles")
+public class RelatedArticles implements Persistable<Long> {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "related_ids", nullable = false, columnDefinition = "TEXT")
+    private String relatedIds;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // Set for rows built by a recompute, so saving them inserts without a select first
+    @Transient
+    private boolean created;
+
+    @Override
+    public Long getId() {
+        return articleId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+}
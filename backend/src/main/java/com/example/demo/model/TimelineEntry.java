@@ -0,0 +1,44 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// An article in a user's home timeline, written by fan-out when a followed author publishes.
+// createdAt is the article's, so a timeline page is one range scan of (user_id, created_at, article_id).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(TimelineEntry.Key.class)
+@Table(name = "timeline_entries", indexes = {
+        @Index(name = "idx_timeline_entries_page", columnList = "user_id, created_at, article_id"),
+        @Index(name = "idx_timeline_entries_article", columnList = "article_id")
+})
+public class TimelineEntry {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long articleId;
+    }
+}
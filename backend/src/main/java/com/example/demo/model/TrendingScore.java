@@ -0,0 +1,26 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Checkpoint of TrendingService state; score is the log-domain decay key, see TrendingService
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,138 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.exception.StatementBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Inside RequestIdFilter, so over-budget warnings carry the request id
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementBudgetFilter.class);
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private StatementBudgetProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // The header and the verdict have to come before the body, so the body is held back until the count is
+        // known. Event streams pass straight through; for those an exceeded budget is only logged and recorded.
+        BudgetResponseWrapper buffered = properties.isExposeHeader() || properties.isFailOnExceed()
+                ? new BudgetResponseWrapper(response)
+                : null;
+
+        statementCounter.begin();
+        StatementBudgetExceededException exceeded;
+        boolean rejected = false;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            int statements = statementCounter.end();
+            exceeded = check(request, statements);
+            if (buffered != null && !buffered.isStreaming()) {
+                if (exceeded != null && properties.isFailOnExceed()) {
+                    // Dropped, so the client gets the error instead of a 200
+                    buffered.resetBuffer();
+                    rejected = true;
+                } else {
+                    if (properties.isExposeHeader()) {
+                        buffered.setHeader(HEADER, String.valueOf(statements));
+                    }
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+        if (rejected) {
+            throw exceeded;
+        }
+    }
+
+    // Records the count and returns the error for an exceeded budget, after logging it
+    private StatementBudgetExceededException check(HttpServletRequest request, int statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return null;
+        }
+        String endpoint = request.getMethod() + " " + pattern;
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern.toString())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+
+        int budget = properties.budgetFor(endpoint);
+        if (statements <= budget) {
+            return null;
+        }
+        logger.warn("{} executed {} SQL statements (budget {})", endpoint, statements, budget);
+        return new StatementBudgetExceededException(endpoint, statements, budget);
+    }
+
+    // Event streams are written after this filter has returned, so once the handler has set that content type
+    // the body goes to the client directly
+    private static final class BudgetResponseWrapper extends ContentCachingResponseWrapper {
+
+        BudgetResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        boolean isStreaming() {
+            String contentType = getContentType();
+            return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isStreaming() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isStreaming() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isStreaming()) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.monitoring;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class StatementBudgetProperties {
+
+    private boolean enabled = true;
+
+    // Statements allowed per request when no endpoint specific budget is configured
+    private int defaultBudget = 20;
+
+    // Budgets keyed by "METHOD /path/pattern", e.g. "GET /api/articles/{id}"
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    // Fail over-budget requests with an error instead of only logging them (used by the test profile). Buffers
+    // the response body like expose-header; event streams are never failed, only logged
+    private boolean failOnExceed = false;
+
+    // Adds the X-SQL-Statement-Count response header; buffers the response body, so keep it off in production
+    private boolean exposeHeader = false;
+
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.payload.request;
+
+import com.example.demo.payload.response.ArticleResponse;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// The fields= parameter of the article read endpoints: a comma separated subset of the ArticleResponse properties,
+// e.g. fields=title,slug. Fields that are not requested are neither computed nor serialized; id is always included.
+public final class ArticleFields {
+    // Property filter id on ArticleResponse; JacksonConfig registers it to write everything by default
+    public static final String FILTER = "articleFields";
+    public static final ArticleFields ALL = new ArticleFields(null);
+
+    private static final Set<String> KNOWN = Arrays.stream(ArticleResponse.class.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toCollection(TreeSet::new));
+
+    // Null when all fields are requested
+    private final Set<String> names;
+
+    private ArticleFields(Set<String> names) {
+        this.names = names;
+    }
+
+    // Used by Spring to bind the request parameter; unknown names are rejected with a 400
+    public static ArticleFields valueOf(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new TreeSet<>();
+        names.add("id");
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!KNOWN.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "', expected any of "
+                        + String.join(",", KNOWN));
+            }
+            names.add(trimmed);
+        }
+        return new ArticleFields(Collections.unmodifiableSet(names));
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    // The body as is when all fields are requested; otherwise wrapped so that every ArticleResponse in it is
+    // written with the requested properties only
+    public Object apply(Object body) {
+        if (names == null) {
+            return body;
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return names == null ? "*" : String.join(",", names);
+    }
+}
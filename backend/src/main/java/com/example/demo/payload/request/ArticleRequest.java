@@ -4,6 +4,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class ArticleRequest {
 
@@ -24,6 +26,9 @@ public class ArticleRequest {
 
     private String imageUrl;
 
+    @Size(max = 10, message = "At most 10 tags are allowed")
+    private List<String> tags;
+
     // Explicit getters and setters (in case Lombok is not working)
     public String getTitle() {
         return title;
@@ -64,4 +69,12 @@ public class ArticleRequest {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
-}
\ No newline at end of file
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
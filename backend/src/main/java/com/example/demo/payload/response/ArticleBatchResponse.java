@@ -0,0 +1,15 @@
+package com.example.demo.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ArticleBatchResponse {
+    // In the order requested
+    private List<ArticleResponse> articles;
+    // Requested ids or slugs that do not exist
+    private List<?> missing;
+}
@@ -1,9 +1,13 @@
 package com.example.demo.payload.response;
 
+import com.example.demo.payload.request.ArticleFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
+@JsonFilter(ArticleFields.FILTER)
 public class ArticleResponse {
     private Long id;
     private String title;
@@ -11,10 +15,15 @@ public class ArticleResponse {
     private String content;
     private String slug;
     private String imageUrl;
+    // Fixed-size thumbnail for list views; null when the image is hosted elsewhere
+    private String thumbnailUrl;
+    private List<String> tags;
     private String authorUsername;
     private Long authorId;
     private LocalDateTime createdAt;
     private long likeCount;
+    private long viewCount;
+    private long uniqueViewers;
     // IMPORTANT: This field MUST be boolean, not String!
     // If you get compilation errors, check that your ArticleResponse class
     // has this field defined as boolean, not String
@@ -69,6 +78,22 @@ public class ArticleResponse {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
     public String getAuthorUsername() {
         return authorUsername;
     }
@@ -101,6 +126,22 @@ public class ArticleResponse {
         this.likeCount = likeCount;
     }
 
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public long getUniqueViewers() {
+        return uniqueViewers;
+    }
+
+    public void setUniqueViewers(long uniqueViewers) {
+        this.uniqueViewers = uniqueViewers;
+    }
+
     public boolean isHashLiked() {
         return this.hashLiked = hashLiked;
     }
@@ -0,0 +1,24 @@
+package com.example.demo.payload.response;
+
+import java.time.LocalDateTime;
+
+// Projection of a full-text search hit; snippet contains <mark> tags around matched terms
+public interface ArticleSearchResult {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getSlug();
+
+    String getImageUrl();
+
+    String getAuthorUsername();
+
+    LocalDateTime getCreatedAt();
+
+    Double getRank();
+
+    String getSnippet();
+}
@@ -0,0 +1,14 @@
+package com.example.demo.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AuthorStatsResponse {
+    private String username;
+    private long totalArticles;
+    private long totalLikes;
+    private long likesLast30Days;
+    private long followers;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImageUploadResponse {
+    // Use as an article's imageUrl
+    private String url;
+    private String thumbnailUrl;
+}
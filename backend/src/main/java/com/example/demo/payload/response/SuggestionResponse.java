@@ -0,0 +1,16 @@
+package com.example.demo.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SuggestionResponse {
+    // "article" or "user"
+    private String type;
+    private Long id;
+    private String label;
+    // Article slug and author, so clients can link to /{authorUsername}/{slug}; null for users
+    private String slug;
+    private String authorUsername;
+}
@@ -0,0 +1,14 @@
+package com.example.demo.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TimelineResponse {
+    private List<ArticleResponse> articles;
+    // Null on the last page
+    private String nextCursor;
+}
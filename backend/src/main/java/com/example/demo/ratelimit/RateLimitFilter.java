@@ -0,0 +1,124 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.payload.response.MessageResponse;
+import com.example.demo.security.jwt.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Runs ahead of the security chain, so a throttled request never reaches the database or BCrypt
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<LimitedRule> rules = new ArrayList<>();
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Map.Entry<String, RateLimitProperties.Rule> entry : properties.getRules().entrySet()) {
+            RateLimitProperties.Rule rule = entry.getValue();
+            RateLimiter limiter = new RateLimiter(rule.getBurst(), rule.getPermitsPerSecond(), properties.getMaxKeys());
+            Counter rejected = Counter.builder("http.server.requests.rate.limited")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("rule", entry.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("rate.limiter.keys", limiter, RateLimiter::size)
+                    .description("Keys currently tracked by the rate limiter")
+                    .tag("rule", entry.getKey())
+                    .register(meterRegistry);
+            rules.add(new LimitedRule(entry.getKey(), rule, limiter, rejected));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (LimitedRule limited : rules) {
+            RateLimitProperties.Rule rule = limited.rule();
+            if (rule.getMethod() != null && !rule.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (!pathMatcher.match(rule.getPath(), path)) {
+                continue;
+            }
+
+            long waitNanos = limited.limiter().tryAcquire(limited.name() + ":" + keyFor(rule, request));
+            if (waitNanos > 0) {
+                limited.rejected().increment();
+                reject(response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleKeys() {
+        rules.forEach(limited -> limited.limiter().evictIdle());
+    }
+
+    private String keyFor(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getKey() == RateLimitProperties.KeyType.USER) {
+            String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+                try {
+                    return "user:" + jwtUtils.getUserNameFromJwtToken(headerAuth.substring(7));
+                } catch (JwtException | IllegalArgumentException e) {
+                    // Invalid tokens are rejected later; meanwhile they count against the caller's address
+                }
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponse("Too many requests"));
+    }
+
+    private record LimitedRule(String name, RateLimitProperties.Rule rule, RateLimiter limiter, Counter rejected) {
+    }
+}
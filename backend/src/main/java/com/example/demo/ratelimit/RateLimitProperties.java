@@ -0,0 +1,44 @@
+package com.example.demo.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Keys tracked per rule; idle keys are evicted first when a rule is full
+    private int maxKeys = 100_000;
+
+    private long evictionIntervalMs = 60_000;
+
+    // Rules keyed by name; a request is checked against every rule it matches
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    public enum KeyType {
+        // Client address; put the app behind server.forward-headers-strategy when it runs behind a proxy
+        IP,
+        // JWT subject, falling back to the client address for requests without a valid token
+        USER
+    }
+
+    @Data
+    public static class Rule {
+        private String method;
+
+        // Ant-style pattern, e.g. /api/articles/*/likes
+        private String path;
+
+        private KeyType key = KeyType.IP;
+
+        // Requests allowed back to back before the refill rate applies
+        private int burst = 10;
+
+        private double permitsPerSecond = 1;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// Token bucket implemented as GCRA (generic cell rate algorithm).
+//
+// The whole bucket state of a key is one long, the theoretical arrival time (TAT) of the next request, updated
+// with a CAS loop, so there are no locks on the request path. A key whose TAT has passed has a full bucket and is
+// indistinguishable from an unknown key, which makes evicting it lossless.
+//
+// Keys live in two generations of at most maxKeys / 2 each. A new key goes into the current one; when that is
+// full the older generation is dropped as a whole and the current one takes its place, and a key found in the
+// older generation moves back into the current one. So unseen keys are always admitted, a flood of new keys
+// (an address range, a botnet) costs O(1) per key instead of a scan, and what it pushes out are the keys seen
+// least recently. A dropped key that was still throttled starts over with a full bucket.
+public class RateLimiter {
+
+    private record Generations(Map<String, AtomicLong> current, Map<String, AtomicLong> previous) {
+    }
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int generationSize;
+    private final LongSupplier clock;
+    private final AtomicReference<Generations> generations = new AtomicReference<>(
+            new Generations(new ConcurrentHashMap<>(), new ConcurrentHashMap<>()));
+
+    public RateLimiter(int burst, double permitsPerSecond, int maxKeys) {
+        this(burst, permitsPerSecond, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int burst, double permitsPerSecond, int maxKeys, LongSupplier clock) {
+        if (burst < 1 || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("burst and permits-per-second must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * burst;
+        this.generationSize = Math.max(1, maxKeys / 2);
+        this.clock = clock;
+    }
+
+    // Returns 0 when the request is allowed, otherwise the nanoseconds until it would be
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = bucketFor(key, now);
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long allowedAt = next - toleranceNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Requests racing on a key that moves between generations may each start from a different state, which at
+    // worst grants that key a few extra permits
+    private AtomicLong bucketFor(String key, long now) {
+        Generations seen = generations.get();
+        AtomicLong bucket = seen.current().get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        AtomicLong older = seen.previous().remove(key);
+        if (seen.current().size() >= generationSize) {
+            Generations rotated = new Generations(new ConcurrentHashMap<>(), seen.current());
+            seen = generations.compareAndSet(seen, rotated) ? rotated : generations.get();
+        }
+        AtomicLong initial = older != null ? older : new AtomicLong(now);
+        return seen.current().computeIfAbsent(key, k -> initial);
+    }
+
+    // Drops keys whose bucket has refilled, keeping the generations small between floods. A request racing with
+    // the removal may update the dropped state, which at worst grants that key one extra permit.
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        Generations current = generations.get();
+        int before = size(current);
+        current.current().values().removeIf(bucket -> bucket.get() <= now);
+        current.previous().values().removeIf(bucket -> bucket.get() <= now);
+        return before - size(current);
+    }
+
+    public int size() {
+        return size(generations.get());
+    }
+
+    private static int size(Generations generations) {
+        return generations.current().size() + generations.previous().size();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ArticleBody;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ArticleBodyRepository extends JpaRepository<ArticleBody, Long> {
+
+    // Bodies stored uncompressed by the migration or bulk loads that are large enough to compress
+    @Query("""
+            SELECT b FROM ArticleBody b
+            WHERE b.codec = com.example.demo.model.ArticleBody.RAW AND b.rawLength >= :threshold AND b.articleId > :after
+            ORDER BY b.articleId
+            """)
+    List<ArticleBody> findUncompressed(@Param("threshold") int threshold, @Param("after") long after, Pageable pageable);
+
+    // Postgres only: bodies of articles in (after, upTo] that are still only in the legacy articles.content
+    // column, copied uncompressed. The search vectors of those articles were backfilled by schema-postgresql.sql
+    // before their bodies were here, so they are recomputed with the body. Articles copied before are skipped
+    // without reading their content.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            WITH copied AS (
+                INSERT INTO article_bodies (article_id, codec, raw_length, data)
+                SELECT a.id, 0, octet_length(a.content), convert_to(a.content, 'UTF8') FROM articles a
+                WHERE a.id > :after AND a.id <= :upTo AND a.content IS NOT NULL
+                  AND NOT EXISTS (SELECT 1 FROM article_bodies b WHERE b.article_id = a.id)
+                ON CONFLICT (article_id) DO NOTHING
+                RETURNING article_id
+            )
+            UPDATE articles a SET search_vector =
+                    setweight(to_tsvector('english', coalesce(a.title, '')), 'A') ||
+                    setweight(to_tsvector('english', coalesce(a.description, '')), 'B') ||
+                    setweight(to_tsvector('english', a.content), 'C')
+            FROM copied WHERE a.id = copied.article_id
+            """, nativeQuery = true)
+    int copyLegacyBodies(@Param("after") long after, @Param("upTo") long upTo);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ArticleBody b WHERE b.articleId = :articleId")
+    int deleteByArticleId(@Param("articleId") Long articleId);
+}
@@ -2,15 +2,21 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Article;
 import com.example.demo.model.User;
-import org.springframework.data.domain.Page;
+import com.example.demo.payload.response.ArticleSearchResult;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
@@ -18,5 +24,159 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
     @Query("SELECT a FROM Article a WHERE a.slug = :slug")
     Optional<Article> findBySlug(@Param("slug") String slug);
     boolean existsBySlug(String slug);
-    Page<Article> findByAuthor_Id(Long authorId, Pageable pageable);
+    // Slices read one extra row instead of counting; page totals come from cached counters
+    Slice<Article> findSliceBy(Pageable pageable);
+    Slice<Article> findSliceByAuthor_Id(Long authorId, Pageable pageable);
+    long countByAuthor_Id(Long authorId);
+
+    // Batch reads with the author in the same statement; User.roles is eager and would otherwise cost a query
+    // per author
+    @Query("SELECT a FROM Article a JOIN FETCH a.author u LEFT JOIN FETCH u.roles WHERE a.id IN :ids")
+    List<Article> findWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a FROM Article a JOIN FETCH a.author u LEFT JOIN FETCH u.roles WHERE a.slug IN :slugs")
+    List<Article> findWithAuthorBySlugIn(@Param("slugs") Collection<String> slugs);
+
+    interface AuthorArticleRow {
+        Long getId();
+
+        Long getAuthorId();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    // Timeline read path for authors that are not fanned out on write
+    @Query("""
+            SELECT a.id AS id, a.author.id AS authorId, a.createdAt AS createdAt FROM Article a
+            WHERE a.author.id IN :authorIds
+            ORDER BY a.createdAt DESC, a.id DESC
+            """)
+    List<AuthorArticleRow> findLatestByAuthors(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("""
+            SELECT a.id AS id, a.author.id AS authorId, a.createdAt AS createdAt FROM Article a
+            WHERE a.author.id IN :authorIds
+              AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :articleId))
+            ORDER BY a.createdAt DESC, a.id DESC
+            """)
+    List<AuthorArticleRow> findLatestByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("articleId") Long articleId, Pageable pageable);
+
+    interface TagRow {
+        Long getId();
+
+        List<String> getTags();
+    }
+
+    // Oldest first, the order TagIndex assigns its bit positions in
+    @Query("SELECT a.id AS id, a.tags AS tags FROM Article a ORDER BY a.createdAt, a.id")
+    Stream<TagRow> streamTagRows();
+
+    @Query("SELECT a.id AS id, a.tags AS tags FROM Article a WHERE a.id IN :ids")
+    List<TagRow> findTagRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface SitemapRow {
+        Long getId();
+
+        String getAuthorUsername();
+
+        String getSlug();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    interface FeedRow extends SitemapRow {
+        String getTitle();
+
+        String getDescription();
+    }
+
+    @Query("""
+            SELECT a.id AS id, u.username AS authorUsername, a.slug AS slug, a.createdAt AS createdAt
+            FROM Article a JOIN a.author u
+            """)
+    Stream<SitemapRow> streamSitemapRows();
+
+    @Query("""
+            SELECT a.id AS id, u.username AS authorUsername, a.slug AS slug, a.createdAt AS createdAt,
+                   a.title AS title, a.description AS description
+            FROM Article a JOIN a.author u
+            ORDER BY a.createdAt DESC, a.id DESC
+            """)
+    List<FeedRow> findLatestFeedRows(Pageable pageable);
+
+    @Query("""
+            SELECT a.id AS id, u.username AS authorUsername, a.slug AS slug, a.createdAt AS createdAt,
+                   a.title AS title, a.description AS description
+            FROM Article a JOIN a.author u
+            WHERE a.id IN :ids
+            """)
+    List<FeedRow> findFeedRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface SuggestionRow {
+        Long getId();
+
+        String getTitle();
+
+        String getSlug();
+
+        String getAuthorUsername();
+
+        long getLikeCount();
+    }
+
+    @Query("""
+            SELECT a.id AS id, a.title AS title, a.slug AS slug, u.username AS authorUsername, COUNT(l.id) AS likeCount
+            FROM Article a JOIN a.author u LEFT JOIN a.likes l
+            GROUP BY a.id, a.title, a.slug, u.username
+            """)
+    Stream<SuggestionRow> streamSuggestionRows();
+
+    @Query("""
+            SELECT a.id AS id, a.title AS title, a.slug AS slug, u.username AS authorUsername, COUNT(l.id) AS likeCount
+            FROM Article a JOIN a.author u LEFT JOIN a.likes l
+            WHERE a.id IN :ids
+            GROUP BY a.id, a.title, a.slug, u.username
+            """)
+    List<SuggestionRow> findSuggestionRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Postgres only: search_vector and its GIN index are created by schema-postgresql.sql.
+    // The body is passed in because article_bodies may hold it compressed.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE articles SET search_vector =
+                    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                    setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+                    setweight(to_tsvector('english', coalesce(CAST(:content AS text), '')), 'C')
+            WHERE id = :id
+            """, nativeQuery = true)
+    void updateSearchVector(@Param("id") Long id, @Param("content") String content);
+
+    // Ranks and pages inside the subquery so ts_headline only runs for the rows that are returned.
+    // Snippets come from the description; bodies may be compressed and are not readable in SQL.
+    @Query(value = """
+            SELECT a.id AS id, a.title AS title, a.description AS description, a.slug AS slug,
+                   a.image_url AS imageUrl, u.username AS authorUsername, a.created_at AS createdAt,
+                   hit.rank AS rank,
+                   ts_headline('english', a.description, hit.query,
+                           'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MinWords=8, MaxWords=24') AS snippet
+            FROM (SELECT a.id, q.query, ts_rank_cd(a.search_vector, q.query) AS rank
+                  FROM articles a, websearch_to_tsquery('english', :query) AS q(query)
+                  WHERE a.search_vector @@ q.query
+                  ORDER BY rank DESC, a.id DESC
+                  LIMIT :limit OFFSET :offset) hit
+            JOIN articles a ON a.id = hit.id
+            JOIN users u ON u.id = a.user_id
+            ORDER BY hit.rank DESC, a.id DESC
+            """, nativeQuery = true)
+    List<ArticleSearchResult> search(@Param("query") String query, @Param("limit") int limit,
+                                     @Param("offset") long offset);
+
+    @Query(value = """
+            SELECT count(*) FROM articles a
+            WHERE a.search_vector @@ websearch_to_tsquery('english', :query)
+            """, nativeQuery = true)
+    long countSearchResults(@Param("query") String query);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ArticleViews;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArticleViewsRepository extends JpaRepository<ArticleViews, Long> {
+
+    interface ArticleViewTotals {
+        Long getArticleId();
+
+        long getViewCount();
+
+        long getUniqueViewers();
+    }
+
+    // Without the sketches; articles without flushed views are absent from the result
+    @Query("""
+            SELECT v.articleId AS articleId, v.viewCount AS viewCount, v.uniqueViewers AS uniqueViewers
+            FROM ArticleViews v WHERE v.articleId IN :articleIds
+            """)
+    List<ArticleViewTotals> findTotals(@Param("articleIds") Collection<Long> articleIds);
+
+    // Row locks keep flushes from several nodes from overwriting each other's sketches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ArticleViews v WHERE v.articleId IN :articleIds")
+    List<ArticleViews> findAllForUpdate(@Param("articleIds") Collection<Long> articleIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ArticleViews v WHERE v.articleId = :articleId")
+    void deleteByArticleId(@Param("articleId") Long articleId);
+}
@@ -0,0 +1,107 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AuthorStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AuthorStatsRepository extends JpaRepository<AuthorStats, Long> {
+
+    @Query("SELECT s FROM AuthorStats s, User u WHERE u.id = s.userId AND u.username = :username")
+    Optional<AuthorStats> findByUsername(@Param("username") String username);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthorStats s SET s.articleCount = s.articleCount + :delta WHERE s.userId = :userId")
+    int addArticles(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE AuthorStats s SET s.likeCount = s.likeCount + :delta, s.recentLikeCount = s.recentLikeCount + :recentDelta
+            WHERE s.userId = :userId
+            """)
+    int addLikes(@Param("userId") Long userId, @Param("delta") long delta, @Param("recentDelta") long recentDelta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthorStats s SET s.followerCount = s.followerCount + :delta WHERE s.userId = :userId")
+    int addFollowers(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // Creates rows for authors that have none yet, e.g. accounts that existed before author_stats
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO author_stats (user_id, article_count, like_count, recent_like_count, follower_count, refreshed_at)
+            SELECT u.id,
+                   (SELECT COUNT(*) FROM articles a WHERE a.user_id = u.id),
+                   (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id WHERE a.user_id = u.id),
+                   (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id
+                    WHERE a.user_id = u.id AND l.created_at >= :since),
+                   (SELECT COUNT(*) FROM follows f WHERE f.author_id = u.id),
+                   :now
+            FROM users u
+            WHERE NOT EXISTS (SELECT 1 FROM author_stats s WHERE s.user_id = u.id)
+            """, nativeQuery = true)
+    int insertMissing(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    // The same for one author, when an event finds no row to update
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO author_stats (user_id, article_count, like_count, recent_like_count, follower_count, refreshed_at)
+            SELECT u.id,
+                   (SELECT COUNT(*) FROM articles a WHERE a.user_id = u.id),
+                   (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id WHERE a.user_id = u.id),
+                   (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id
+                    WHERE a.user_id = u.id AND l.created_at >= :since),
+                   (SELECT COUNT(*) FROM follows f WHERE f.author_id = u.id),
+                   :now
+            FROM users u
+            WHERE u.id = :userId
+              AND NOT EXISTS (SELECT 1 FROM author_stats s WHERE s.user_id = u.id)
+            """, nativeQuery = true)
+    int insertMissing(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE author_stats SET
+                article_count = (SELECT COUNT(*) FROM articles a WHERE a.user_id = author_stats.user_id),
+                like_count = (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id
+                              WHERE a.user_id = author_stats.user_id),
+                recent_like_count = (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id
+                                     WHERE a.user_id = author_stats.user_id AND l.created_at >= :since),
+                follower_count = (SELECT COUNT(*) FROM follows f WHERE f.author_id = author_stats.user_id),
+                refreshed_at = :now
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int recompute(@Param("userId") Long userId, @Param("since") LocalDateTime since,
+                  @Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(s.refreshedAt) FROM AuthorStats s")
+    Optional<LocalDateTime> findOldestRefresh();
+
+    // Re-aligns the 30 day window; likes only age out of it, which increments cannot see. Only authors with a
+    // like created in [from, since), which left the window since the last refresh, are recounted.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE author_stats SET
+                recent_like_count = (SELECT COUNT(*) FROM likes l JOIN articles a ON a.id = l.article_id
+                                     WHERE a.user_id = author_stats.user_id AND l.created_at >= :since),
+                refreshed_at = :now
+            WHERE user_id IN (SELECT a.user_id FROM likes l JOIN articles a ON a.id = l.article_id
+                              WHERE l.created_at >= :from AND l.created_at < :since)
+            """, nativeQuery = true)
+    int refreshRecentLikes(@Param("from") LocalDateTime from, @Param("since") LocalDateTime since,
+                           @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Follow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+
+    boolean existsByFollowerIdAndAuthorId(Long followerId, Long authorId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.author.id = :authorId")
+    int deleteByFollowerIdAndAuthorId(@Param("followerId") Long followerId, @Param("authorId") Long authorId);
+
+    // Followed authors that are not fanned out on write and have to be merged into the timeline on read
+    @Query("""
+            SELECT f.author.id FROM Follow f, AuthorStats s
+            WHERE f.follower.id = :followerId AND s.userId = f.author.id AND s.followerCount >= :threshold
+            """)
+    List<Long> findFollowedAuthorsWithFollowersAtLeast(@Param("followerId") Long followerId,
+                                                       @Param("threshold") long threshold);
+}
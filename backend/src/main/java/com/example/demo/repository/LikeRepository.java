@@ -3,13 +3,20 @@ package com.example.demo.repository;
 import com.example.demo.model.Article;
 import com.example.demo.model.Like;
 import com.example.demo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface LikeRepository extends JpaRepository<Like, Long> {
 
@@ -26,4 +33,42 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     @Query("DELETE FROM Like l WHERE l.user = :user AND l.article = :article")
     void deleteByUserAndArticle(@Param("user") User user, @Param("article") Article article);
 
+    interface ArticleLikeCount {
+        Long getArticleId();
+
+        long getLikeCount();
+    }
+
+    // Articles without likes are absent from the result
+    @Query("""
+            SELECT l.article.id AS articleId, COUNT(l) AS likeCount FROM Like l
+            WHERE l.article.id IN :articleIds GROUP BY l.article.id
+            """)
+    List<ArticleLikeCount> countByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+
+    // The subset of the given articles that the user has liked
+    @Query("SELECT l.article.id FROM Like l WHERE l.user.username = :username AND l.article.id IN :articleIds")
+    List<Long> findLikedArticleIds(@Param("username") String username,
+                                   @Param("articleIds") Collection<Long> articleIds);
+
+    interface LikeTimeRow {
+        Long getArticleId();
+
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("SELECT l.article.id AS articleId, l.createdAt AS createdAt FROM Like l WHERE l.createdAt >= :since")
+    Stream<LikeTimeRow> streamLikesSince(@Param("since") LocalDateTime since);
+
+    interface UserArticleRow {
+        Long getUserId();
+
+        Long getArticleId();
+    }
+
+    // Grouped by user, as CoLikeSimilarity.Builder expects; the fetch size lets Postgres stream instead of buffering
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT l.user.id AS userId, l.article.id AS articleId FROM Like l ORDER BY l.user.id")
+    Stream<UserArticleRow> streamUserArticlePairs();
+
 }
\ No newline at end of file
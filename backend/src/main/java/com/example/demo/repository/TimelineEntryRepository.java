@@ -0,0 +1,76 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.TimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntry.Key> {
+
+    @Query("SELECT t FROM TimelineEntry t WHERE t.userId = :userId ORDER BY t.createdAt DESC, t.articleId DESC")
+    List<TimelineEntry> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT t FROM TimelineEntry t
+            WHERE t.userId = :userId
+              AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.articleId < :articleId))
+            ORDER BY t.createdAt DESC, t.articleId DESC
+            """)
+    List<TimelineEntry> findPageBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("articleId") Long articleId, Pageable pageable);
+
+    // Fan-out on write: one set-based insert into every follower's timeline
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline_entries (user_id, article_id, author_id, created_at)
+            SELECT f.follower_id, :articleId, :authorId, :createdAt FROM follows f
+            WHERE f.author_id = :authorId
+            """, nativeQuery = true)
+    int fanOut(@Param("articleId") Long articleId, @Param("authorId") Long authorId,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    // Copies an author's latest articles into the timeline of a new follower
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO timeline_entries (user_id, article_id, author_id, created_at)
+            SELECT :userId, a.id, a.user_id, a.created_at FROM articles a
+            WHERE a.id IN (SELECT r.id FROM articles r WHERE r.user_id = :authorId
+                           ORDER BY r.created_at DESC, r.id DESC LIMIT :limit)
+              AND NOT EXISTS (SELECT 1 FROM timeline_entries t WHERE t.user_id = :userId AND t.article_id = a.id)
+            """, nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.articleId = :articleId")
+    int deleteByArticleId(@Param("articleId") Long articleId);
+
+    // Keeps only the newest maxLength entries of every timeline
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM timeline_entries WHERE (user_id, article_id) IN (
+                SELECT ranked.user_id, ranked.article_id FROM (
+                    SELECT t.user_id, t.article_id,
+                           row_number() OVER (PARTITION BY t.user_id ORDER BY t.created_at DESC, t.article_id DESC) AS position
+                    FROM timeline_entries t
+                ) ranked
+                WHERE ranked.position > :maxLength)
+            """, nativeQuery = true)
+    int trim(@Param("maxLength") int maxLength);
+}
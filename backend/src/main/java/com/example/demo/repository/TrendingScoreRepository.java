@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long> {
+
+    @Query("SELECT MAX(t.updatedAt) FROM TrendingScore t")
+    LocalDateTime findLatestUpdate();
+}
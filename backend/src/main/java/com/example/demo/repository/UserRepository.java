@@ -2,9 +2,14 @@ package com.example.demo.repository;
 
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +18,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
     Optional<User> findByConfirmationToken(String token);
+
+    interface SuggestionRow {
+        Long getId();
+
+        String getUsername();
+
+        long getArticleCount();
+    }
+
+    @Query("""
+            SELECT u.id AS id, u.username AS username, COUNT(a.id) AS articleCount
+            FROM User u LEFT JOIN Article a ON a.author = u
+            GROUP BY u.id, u.username
+            """)
+    Stream<SuggestionRow> streamSuggestionRows();
+
+    @Query("""
+            SELECT u.id AS id, u.username AS username, COUNT(a.id) AS articleCount
+            FROM User u LEFT JOIN Article a ON a.author = u
+            WHERE u.id IN :ids
+            GROUP BY u.id, u.username
+            """)
+    List<SuggestionRow> findSuggestionRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.example.demo.security.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -56,6 +57,12 @@ public class WebSecurityConfig {
                 .authorizeHttpRequests(auth ->
                         auth.requestMatchers("/api/auth/**").permitAll()
                                 .requestMatchers("/api/articles/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/api/users/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/sitemap.xml", "/sitemap-*.xml", "/rss.xml", "/atom.xml")
+                                .permitAll()
+                                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                                .requestMatchers("/actuator/loggers", "/actuator/loggers/**").hasRole("ADMIN")
                                 .anyRequest().authenticated()
                 );
 
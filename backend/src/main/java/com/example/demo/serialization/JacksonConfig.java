@@ -0,0 +1,49 @@
+package com.example.demo.serialization;
+
+import com.example.demo.payload.request.ArticleFields;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    // Boot's builder is a prototype bean carrying the application's Jackson settings and customizers
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    // ArticleResponse names a property filter for sparse fieldsets; unless a request narrows it with fields=,
+    // every property is written
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer articleFieldsFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(ArticleFields.FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    // With jackson-dataformat-cbor and -smile on the classpath Spring MVC registers converters for application/cbor
+    // and application/x-jackson-smile, behind the JSON one so that Accept: */* or no Accept still gets JSON. They
+    // come with default mappers; these give them the application's Jackson settings and the ArticleResponse filter.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter cbor) {
+                cbor.setObjectMapper(objectMapperBuilders.getObject().factory(new CBORFactory()).build());
+            } else if (converter instanceof MappingJackson2SmileHttpMessageConverter smile) {
+                smile.setObjectMapper(objectMapperBuilders.getObject().factory(new SmileFactory()).build());
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.model.ArticleBody;
+import com.example.demo.repository.ArticleBodyRepository;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+// Article bodies in article_bodies. Bodies of at least app.article-body.compress-threshold UTF-8 bytes are
+// LZ4 compressed when that makes them smaller; only getContent decompresses, and only detail endpoints call it.
+@Service
+public class ArticleBodyService {
+    private static final Logger logger = LoggerFactory.getLogger(ArticleBodyService.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int COPY_BATCH_SIZE = 5000;
+    private static final String LOCK = "article-bodies";
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    @Autowired
+    private ArticleBodyRepository articleBodyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClusterLockService clusterLockService;
+
+    private final int compressThreshold;
+
+    public ArticleBodyService(@Value("${app.article-body.compress-threshold:1024}") int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    public void save(Long articleId, String content, boolean created) {
+        ArticleBody body = new ArticleBody();
+        body.setArticleId(articleId);
+        body.setCreated(created);
+        encode(body, content);
+        articleBodyRepository.save(body);
+    }
+
+    public Optional<String> getContent(Long articleId) {
+        return articleBodyRepository.findById(articleId).map(ArticleBodyService::decode);
+    }
+
+    // Before the application takes traffic, bodies still in the legacy articles.content column are copied over
+    // and bodies stored uncompressed, by that copy or by bulk loads, are compressed. One instance does it; the
+    // others start without waiting, reads of bodies that are not compressed yet work all the same.
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateStoredBodies() {
+        clusterLockService.tryRunExclusively(LOCK, () -> {
+            copyLegacyBodies();
+            compressStoredBodies();
+        });
+    }
+
+    // Returns the number of bodies copied
+    int copyLegacyBodies() {
+        Integer legacyColumns = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_name = 'articles' AND column_name = 'content'
+                """, Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return 0;
+        }
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM articles", Long.class);
+        int copied = 0;
+        for (long after = 0; maxId != null && after < maxId; after += COPY_BATCH_SIZE) {
+            copied += articleBodyRepository.copyLegacyBodies(after, after + COPY_BATCH_SIZE);
+        }
+        if (copied > 0) {
+            logger.info("Copied {} article bodies from articles.content", copied);
+        }
+        return copied;
+    }
+
+    void compressStoredBodies() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long after = 0;
+        int compressed = 0;
+        while (true) {
+            long from = after;
+            List<ArticleBody> batch = transaction.execute(status -> {
+                List<ArticleBody> bodies = articleBodyRepository.findUncompressed(compressThreshold, from,
+                        PageRequest.of(0, BATCH_SIZE));
+                // Managed entities: the changes are flushed as batched updates on commit
+                bodies.forEach(body -> encode(body, decode(body)));
+                return bodies;
+            });
+            if (batch.isEmpty()) {
+                break;
+            }
+            compressed += (int) batch.stream().filter(body -> body.getCodec() == ArticleBody.LZ4).count();
+            after = batch.get(batch.size() - 1).getArticleId();
+        }
+        if (compressed > 0) {
+            logger.info("Compressed {} stored article bodies", compressed);
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        articleBodyRepository.deleteByArticleId(event.article().getId());
+    }
+
+    void encode(ArticleBody body, String content) {
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        body.setRawLength(raw.length);
+        if (raw.length >= compressThreshold) {
+            byte[] compressed = COMPRESSOR.compress(raw);
+            if (compressed.length < raw.length) {
+                body.setCodec(ArticleBody.LZ4);
+                body.setData(compressed);
+                return;
+            }
+        }
+        body.setCodec(ArticleBody.RAW);
+        body.setData(raw);
+    }
+
+    static String decode(ArticleBody body) {
+        byte[] raw = body.getCodec() == ArticleBody.LZ4
+                ? DECOMPRESSOR.decompress(body.getData(), body.getRawLength())
+                : body.getData();
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.CacheResyncEvent;
+import com.example.demo.repository.ArticleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Total number of articles for feed pages, so they do not run SELECT COUNT(*) per request.
+// Kept current from local article events and those of other instances, and re-counted on a schedule and
+// after the invalidation bus reconnects; between re-counts the total may be slightly off.
+@Service
+public class ArticleCountService {
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private final AtomicLong total = new AtomicLong();
+
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    @Scheduled(fixedDelayString = "${app.article-count.refresh-interval-ms:300000}",
+            initialDelayString = "${app.article-count.refresh-interval-ms:300000}")
+    public void refresh() {
+        total.set(articleRepository.count());
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    @EventListener
+    public void onArticleSaved(ArticleSavedEvent event) {
+        if (event.created()) {
+            total.incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        total.updateAndGet(count -> Math.max(count - 1, 0));
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        long delta = event.createdArticles().size() - event.deletedArticles().size();
+        if (delta != 0) {
+            total.updateAndGet(count -> Math.max(count + delta, 0));
+        }
+    }
+}
@@ -1,23 +1,40 @@
 package com.example.demo.service;
 
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.LikeToggledEvent;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Article;
+import com.example.demo.model.AuthorStats;
 import com.example.demo.model.Like;
 import com.example.demo.model.User;
+import com.example.demo.payload.response.ArticleSearchResult;
 import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.AuthorStatsRepository;
 import com.example.demo.repository.LikeRepository;
 import com.example.demo.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ArticleService {
@@ -27,10 +44,27 @@ public class ArticleService {
     private ArticleRepository articleRepository;
     @Autowired
     private LikeRepository likeRepository;
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+    @Autowired
+    private ArticleCountService articleCountService;
+    @Autowired
+    private ArticleBodyService articleBodyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    // Updated to support pagination
+    @Value("${app.search.enabled:true}")
+    private boolean searchEnabled;
+
+    // Updated to support pagination; the total is the cached article count, not a COUNT(*) per page
     public Page<Article> getAllArticles(Pageable pageable) {
-        return articleRepository.findAll(pageable);
+        return withTotal(articleRepository.findSliceBy(pageable), articleCountService.getTotal());
+    }
+
+    // For clients that only need "is there a next page"
+    public Slice<Article> getArticleSlice(Pageable pageable) {
+        return articleRepository.findSliceBy(pageable);
     }
 
     public List<Article> getAllArticles() {
@@ -46,14 +80,18 @@ public class ArticleService {
     }
 
     public Page<Article> getArticlesByUserId(Long userId, Pageable pageable) {
-        return articleRepository.findByAuthor_Id(userId, pageable);
+        long total = authorStatsRepository.findById(userId).map(AuthorStats::getArticleCount).orElse(0L);
+        return withTotal(articleRepository.findSliceByAuthor_Id(userId, pageable), total);
     }
 
-    // New method to get articles by username with pagination
+    // New method to get articles by username with pagination; the total comes from author_stats
     public Page<Article> getArticlesByUsername(String username, Pageable pageable) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return articleRepository.findByAuthor_Id(user.getId(), pageable);
+        AuthorStats stats = authorStatsOf(username);
+        return withTotal(articleRepository.findSliceByAuthor_Id(stats.getUserId(), pageable), stats.getArticleCount());
+    }
+
+    public Slice<Article> getArticleSliceByUsername(String username, Pageable pageable) {
+        return articleRepository.findSliceByAuthor_Id(authorStatsOf(username).getUserId(), pageable);
     }
 
     // New method to get articles by username without pagination
@@ -64,13 +102,85 @@ public class ArticleService {
     }
 
     public Article saveArticle(Article article) {
-        return articleRepository.save(article);
+        boolean created = article.getId() == null;
+        String content = article.getContent();
+        Article saved = articleRepository.save(article);
+        // The body is only written when it was set; content is transient, so merge does not carry it over
+        if (content != null) {
+            articleBodyService.save(saved.getId(), content, created);
+            saved.setContent(content);
+        }
+        if (searchEnabled) {
+            articleRepository.updateSearchVector(saved.getId(),
+                    content != null ? content : articleBodyService.getContent(saved.getId()).orElse(null));
+        }
+        eventPublisher.publishEvent(new ArticleSavedEvent(saved, created));
+        return saved;
+    }
+
+    // The stats row also resolves the username, so a page costs one lookup plus the slice query
+    private AuthorStats authorStatsOf(String username) {
+        return authorStatsRepository.findByUsername(username).orElseGet(() -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            return new AuthorStats(user.getId(), articleRepository.countByAuthor_Id(user.getId()), 0, 0, 0, null);
+        });
+    }
+
+    // A cached total can lag behind, so it is corrected by what the slice shows: a slice that reaches the end
+    // gives the exact total, and one with a next page a lower bound
+    private static Page<Article> withTotal(Slice<Article> slice, long cachedTotal) {
+        long offset = slice.getPageable().getOffset();
+        long total;
+        if (slice.hasNext()) {
+            total = Math.max(cachedTotal, offset + slice.getNumberOfElements() + 1);
+        } else if (slice.hasContent()) {
+            total = offset + slice.getNumberOfElements();
+        } else {
+            total = Math.min(cachedTotal, offset);
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    // Decompressed body of one article, for the detail endpoints
+    public Optional<String> getContent(Long articleId) {
+        return articleBodyService.getContent(articleId);
+    }
+
+    public boolean isSearchEnabled() {
+        return searchEnabled;
+    }
+
+    public Page<ArticleSearchResult> searchArticles(String query, Pageable pageable) {
+        List<ArticleSearchResult> results = articleRepository.search(query, pageable.getPageSize(), pageable.getOffset());
+        // A short first page already tells the total, so the count query is skipped
+        long total = pageable.getOffset() == 0 && results.size() < pageable.getPageSize()
+                ? results.size()
+                : articleRepository.countSearchResults(query);
+        return new PageImpl<>(results, pageable, total);
     }
 
     public void deleteArticle(Long id) {
         Article article = articleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Article", "id", id));
         articleRepository.delete(article);
+        eventPublisher.publishEvent(new ArticleDeletedEvent(article));
+    }
+
+    // Authors are fetched with the articles; missing ids are skipped and the result keeps the order of the ids
+    public List<Article> getArticlesWithAuthorsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Article> byId = articleRepository.findWithAuthorByIdIn(ids).stream()
+                .collect(Collectors.toMap(Article::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    public List<Article> getArticlesWithAuthorsBySlugs(Collection<String> slugs) {
+        Map<String, Article> bySlug = articleRepository.findWithAuthorBySlugIn(slugs).stream()
+                .collect(Collectors.toMap(Article::getSlug, Function.identity(), (first, second) -> first));
+        return slugs.stream().map(bySlug::get).filter(Objects::nonNull).toList();
     }
 
     public List<Article> getArticlesByUser(User user) {
@@ -90,11 +200,15 @@ public class ArticleService {
         Optional<Like> existingLike = likeRepository.findByUserAndArticle(user, article);
         if (existingLike.isPresent()) {
             likeRepository.delete(existingLike.get());
+            eventPublisher.publishEvent(new LikeToggledEvent(articleId, article.getAuthor().getId(), user.getId(), false,
+                    existingLike.get().getCreatedAt()));
         } else {
             Like like = new Like();
             like.setArticle(article);
             like.setUser(user);
-            likeRepository.save(like);
+            Like saved = likeRepository.save(like);
+            eventPublisher.publishEvent(new LikeToggledEvent(articleId, article.getAuthor().getId(), user.getId(),
+                    true, saved.getCreatedAt()));
         }
 
         return Optional.of(article);
@@ -115,6 +229,23 @@ public class ArticleService {
         }
     }
 
+    // One query for all of the articles; those without likes count 0
+    public Map<Long, Long> countLikes(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return Map.of();
+        }
+        return likeRepository.countByArticleIds(articleIds).stream()
+                .collect(Collectors.toMap(LikeRepository.ArticleLikeCount::getArticleId,
+                        LikeRepository.ArticleLikeCount::getLikeCount));
+    }
+
+    public Set<Long> getLikedArticleIds(Collection<Long> articleIds, String username) {
+        if (articleIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(likeRepository.findLikedArticleIds(username, articleIds));
+    }
+
     public long countLikes(Long articleId) {
         Article article = articleRepository.findById(articleId)
                 .orElseThrow(() -> new EntityNotFoundException("Article not found"));
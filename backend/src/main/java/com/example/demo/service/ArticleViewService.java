@@ -0,0 +1,192 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.model.ArticleViews;
+import com.example.demo.repository.ArticleViewsRepository;
+import com.example.demo.sketch.HyperLogLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts article views in memory and flushes them to article_views in batches.
+//
+// Each article with recent views holds a striped counter for raw views and a HyperLogLog sketch of its viewers
+// (2 KiB), and at most maxTracked articles are held, so memory is bounded however many articles exist. The
+// counter is reset on every flush; the sketch is not, because merging the same viewers twice is a no-op.
+@Service
+public class ArticleViewService {
+    private static final Logger logger = LoggerFactory.getLogger(ArticleViewService.class);
+    private static final int FLUSH_CHUNK = 500;
+
+    @Autowired
+    private ArticleViewsRepository articleViewsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final int maxTracked;
+    private final Counter dropped;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private record Pending(LongAdder views, HyperLogLog viewers) {
+        Pending() {
+            this(new LongAdder(), new HyperLogLog());
+        }
+
+        void absorb(Pending other) {
+            views.add(other.views.sumThenReset());
+            viewers.merge(other.viewers);
+        }
+    }
+
+    private record Delta(long views, HyperLogLog viewers) {
+    }
+
+    public record Totals(long views, long uniqueViewers) {
+    }
+
+    public ArticleViewService(@Value("${app.views.max-tracked:10000}") int maxTracked, MeterRegistry meterRegistry) {
+        this.maxTracked = maxTracked;
+        this.dropped = Counter.builder("article.views.dropped")
+                .description("Views not counted because the pending view table was full")
+                .register(meterRegistry);
+    }
+
+    public void recordView(Long articleId, String viewer) {
+        Pending views = pending.get(articleId);
+        if (views == null) {
+            if (pending.size() >= maxTracked) {
+                dropped.increment();
+                return;
+            }
+            views = pending.computeIfAbsent(articleId, id -> new Pending());
+        }
+        views.views().increment();
+        views.viewers().add(viewer);
+    }
+
+    // Flushed totals plus what is still pending in memory, for every given article; one query for all of them
+    public Map<Long, Totals> getTotals(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, ArticleViewsRepository.ArticleViewTotals> flushed = new HashMap<>();
+        articleViewsRepository.findTotals(articleIds).forEach(row -> flushed.put(row.getArticleId(), row));
+        Map<Long, Totals> totals = new HashMap<>();
+        for (Long articleId : articleIds) {
+            ArticleViewsRepository.ArticleViewTotals row = flushed.get(articleId);
+            long views = (row != null ? row.getViewCount() : 0) + pendingViews(articleId);
+            long uniqueViewers = Math.max(row != null ? row.getUniqueViewers() : 0, pendingUniqueViewers(articleId));
+            totals.put(articleId, new Totals(views, uniqueViewers));
+        }
+        return totals;
+    }
+
+    // Views not flushed yet
+    public long pendingViews(Long articleId) {
+        Pending views = pending.get(articleId);
+        return views != null ? views.views().sum() : 0;
+    }
+
+    // Viewers since the article's pending entry was created: a lower bound until the next flush
+    public long pendingUniqueViewers(Long articleId) {
+        Pending views = pending.get(articleId);
+        return views != null ? views.viewers().estimate() : 0;
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        pending.remove(event.article().getId());
+        articleViewsRepository.deleteByArticleId(event.article().getId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:10000}")
+    public void flush() {
+        Map<Long, Delta> batch = new HashMap<>();
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            Pending views = entry.getValue();
+            long count = views.views().sumThenReset();
+            if (count > 0) {
+                batch.put(entry.getKey(), new Delta(count, views.viewers()));
+            } else if (pending.remove(entry.getKey(), views) && views.views().sum() > 0) {
+                // Idle for a whole interval, but a view slipped in while it was being removed
+                restore(entry.getKey(), views);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(batch.keySet());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < ids.size(); from += FLUSH_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + FLUSH_CHUNK, ids.size()));
+            try {
+                transaction.executeWithoutResult(status -> write(chunk, batch));
+            } catch (RuntimeException e) {
+                logger.warn("Flushing views of {} articles failed, retrying next interval: {}", chunk.size(), e.getMessage());
+                for (Long articleId : chunk) {
+                    Delta delta = batch.get(articleId);
+                    Pending views = new Pending();
+                    views.views().add(delta.views());
+                    views.viewers().merge(delta.viewers());
+                    restore(articleId, views);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<Long> articleIds, Map<Long, Delta> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ArticleViews> rows = new HashMap<>();
+        articleViewsRepository.findAllForUpdate(articleIds).forEach(row -> rows.put(row.getArticleId(), row));
+
+        List<ArticleViews> created = new ArrayList<>();
+        for (Long articleId : articleIds) {
+            Delta delta = batch.get(articleId);
+            ArticleViews row = rows.get(articleId);
+            if (row == null) {
+                row = new ArticleViews(articleId, 0, 0, null, now, true);
+                created.add(row);
+            }
+            HyperLogLog viewers = HyperLogLog.fromBytes(row.getSketch());
+            viewers.merge(delta.viewers());
+            row.setViewCount(row.getViewCount() + delta.views());
+            row.setUniqueViewers(viewers.estimate());
+            row.setSketch(viewers.toBytes());
+            row.setUpdatedAt(now);
+        }
+        // Existing rows are managed and written by dirty checking
+        articleViewsRepository.saveAll(created);
+    }
+
+    private void restore(Long articleId, Pending views) {
+        Pending current = pending.putIfAbsent(articleId, views);
+        if (current != null) {
+            current.absorb(views);
+        }
+    }
+}
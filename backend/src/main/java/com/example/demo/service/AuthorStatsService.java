@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.FollowToggledEvent;
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.event.UserRegisteredEvent;
+import com.example.demo.model.AuthorStats;
+import com.example.demo.repository.AuthorStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Keeps author_stats current with single-row increments from article, like and follow events.
+// Deletes recompute the author's row, and the 30 day like window is re-aligned on a schedule.
+@Service
+public class AuthorStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthorStatsService.class);
+    private static final int RECENT_DAYS = 30;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    // Start of the window at the last refresh; likes created before it were already counted out
+    private volatile LocalDateTime refreshedSince;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int created = authorStatsRepository.insertMissing(recentSince(), LocalDateTime.now());
+        if (created > 0) {
+            logger.info("Created author stats for {} authors", created);
+        }
+    }
+
+    public Optional<AuthorStats> getStats(String username) {
+        return authorStatsRepository.findByUsername(username);
+    }
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        authorStatsRepository.save(new AuthorStats(event.user().getId(), 0, 0, 0, 0, LocalDateTime.now()));
+    }
+
+    @EventListener
+    public void onArticleSaved(ArticleSavedEvent event) {
+        if (event.created()) {
+            Long authorId = event.article().getAuthor().getId();
+            if (authorStatsRepository.addArticles(authorId, 1) == 0) {
+                recompute(authorId);
+            }
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        // The article's likes were deleted with it; recomputing the row is simpler than tracking them
+        recompute(event.article().getAuthor().getId());
+    }
+
+    @EventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        long delta = event.liked() ? 1 : -1;
+        long recentDelta = event.likedAt() != null && event.likedAt().isAfter(recentSince()) ? delta : 0;
+        if (authorStatsRepository.addLikes(event.authorId(), delta, recentDelta) == 0) {
+            recompute(event.authorId());
+        }
+    }
+
+    @EventListener
+    public void onFollowToggled(FollowToggledEvent event) {
+        if (authorStatsRepository.addFollowers(event.authorId(), event.following() ? 1 : -1) == 0) {
+            recompute(event.authorId());
+        }
+    }
+
+    @Scheduled(cron = "${app.author-stats.refresh-cron:0 15 * * * *}")
+    public void refreshRecentLikes() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(RECENT_DAYS);
+        // After a restart, from the window of the stalest row
+        LocalDateTime from = refreshedSince != null
+                ? refreshedSince
+                : authorStatsRepository.findOldestRefresh().map(refreshed -> refreshed.minusDays(RECENT_DAYS)).orElse(since);
+        int refreshed = authorStatsRepository.refreshRecentLikes(from, since, now);
+        refreshedSince = since;
+        logger.debug("Re-aligned recent likes of {} authors", refreshed);
+    }
+
+    private void recompute(Long authorId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (authorStatsRepository.recompute(authorId, recentSince(), now) == 0) {
+            authorStatsRepository.insertMissing(authorId, recentSince(), now);
+        }
+    }
+
+    private static LocalDateTime recentSince() {
+        return LocalDateTime.now().minusDays(RECENT_DAYS);
+    }
+}
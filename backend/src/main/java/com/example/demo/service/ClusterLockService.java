@@ -0,0 +1,70 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Work that only one of several instances sharing the database should do at a time. The lock is a Postgres
+// session advisory lock held on one pooled connection while the task runs; the task itself uses connections of
+// its own. Postgres releases the lock if the instance dies. Other databases have a single instance, there the
+// task just runs.
+@Service
+public class ClusterLockService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Waits while another instance holds the lock
+    public void runExclusively(String name, Runnable task) {
+        run(name, task, true);
+    }
+
+    // Returns false without running the task when another instance holds the lock
+    public boolean tryRunExclusively(String name, Runnable task) {
+        return run(name, task, false);
+    }
+
+    private boolean run(String name, Runnable task, boolean wait) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                task.run();
+                return true;
+            }
+            if (!lock(connection, name, wait)) {
+                return false;
+            }
+            try {
+                task.run();
+            } finally {
+                query(connection, "SELECT pg_advisory_unlock(hashtext(?))", name);
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private static boolean lock(Connection connection, String name, boolean wait) throws SQLException {
+        if (wait) {
+            query(connection, "SELECT pg_advisory_lock(hashtext(?))", name);
+            return true;
+        }
+        return query(connection, "SELECT pg_try_advisory_lock(hashtext(?))", name);
+    }
+
+    private static boolean query(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                // pg_advisory_lock returns void, read as null
+                return result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.resend.Resend;
 import com.resend.core.exception.ResendException;
 import com.resend.services.emails.model.CreateEmailOptions;
 import com.resend.services.emails.model.CreateEmailResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -13,7 +15,8 @@ import org.thymeleaf.context.Context;
 
 @Service
 public class EmailService {
-    
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
     private TemplateEngine templateEngine;
 
@@ -28,16 +31,11 @@ public class EmailService {
 
     public void sendConfirmationEmail(User user) {
         try {
-            System.out.println("Preparing to send email to: " + user.getEmail());
-            System.out.println("Confirmation token: " + user.getConfirmationToken());
-            System.out.println("App URL: " + appUrl);
-
             Context context = new Context();
             context.setVariable("user", user);
             context.setVariable("confirmationUrl", appUrl + "/api/auth/confirm?token=" + user.getConfirmationToken());
 
             String htmlContent = templateEngine.process("email/confirmation-email", context);
-            System.out.println("Email content generated: " + (htmlContent != null));
 
             // Initialize Resend with API key
             Resend resend = new Resend(resendApiKey);
@@ -49,16 +47,13 @@ public class EmailService {
                     .html(htmlContent)
                     .build();
 
-            System.out.println("Sending email via Resend API...");
             CreateEmailResponse response = resend.emails().send(createEmailOptions);
-            System.out.println("Email sent successfully. Email ID: " + response.getId());
+            logger.info("Confirmation email for {} sent, Resend id {}", user.getUsername(), response.getId());
             
         } catch (ResendException e) {
-            System.err.println("Failed to send confirmation email via Resend: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Resend rejected the confirmation email for {}: {}", user.getUsername(), e.getMessage());
         } catch (Exception e) {
-            System.err.println("Failed to send confirmation email: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to send confirmation email for {}", user.getUsername(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Anonymous feed pages rendered to JSON by Postgres and copied to the client without being decoded.
+// No entities or DTOs are built; the document has the shape of the Page<ArticleResponse> that
+// GET /api/articles returns, with hashLiked always false and only flushed view counts. Like every list,
+// it carries no article bodies.
+@Service
+public class FeedService {
+
+    // One statement: the page, its authors, like counts and view counts, aggregated in the database.
+    // The total is the cached article count, as for GET /api/articles.
+    private static final String FEED_PAGE = """
+            WITH page AS (
+                SELECT a.id, a.title, a.description, a.slug, a.image_url, a.tags, a.created_at, a.user_id
+                FROM articles a
+                ORDER BY a.created_at DESC, a.id DESC
+                LIMIT :limit OFFSET :offset
+            ), total AS (
+                SELECT CAST(:total AS bigint) AS elements
+            )
+            SELECT json_build_object(
+                'content', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', p.id,
+                        'title', p.title,
+                        'description', p.description,
+                        'content', NULL,
+                        'slug', p.slug,
+                        'imageUrl', p.image_url,
+                        -- Same rule as ImageService.thumbnailUrlFor
+                        'thumbnailUrl', CASE WHEN p.image_url ~ '/api/images/[0-9a-f]{64}\\.(jpg|png|gif)$'
+                            THEN regexp_replace(p.image_url, '/api/images/([0-9a-f]{64})\\.[a-z]+$',
+                                                '/api/images/thumbnails/\\1.jpg')
+                        END,
+                        'tags', COALESCE(to_json(string_to_array(p.tags, ',')), '[]'::json),
+                        'authorUsername', u.username,
+                        'authorId', u.id,
+                        'createdAt', p.created_at,
+                        'likeCount', (SELECT count(*) FROM likes l WHERE l.article_id = p.id),
+                        'viewCount', COALESCE(v.view_count, 0),
+                        'uniqueViewers', COALESCE(v.unique_viewers, 0),
+                        'hashLiked', false
+                    ) ORDER BY p.created_at DESC, p.id DESC)
+                    FROM page p
+                    JOIN users u ON u.id = p.user_id
+                    LEFT JOIN article_views v ON v.article_id = p.id
+                ), '[]'::json),
+                'number', :page,
+                'size', :limit,
+                'numberOfElements', (SELECT count(*) FROM page),
+                'totalElements', total.elements,
+                'totalPages', (total.elements + :limit - 1) / :limit,
+                'first', :page = 0,
+                'last', :offset + :limit >= total.elements,
+                'empty', NOT EXISTS (SELECT 1 FROM page)
+            )::text
+            FROM total
+            """;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Value("${app.feed.enabled:true}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void writePage(int page, int size, OutputStream out) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("page", page)
+                .addValue("limit", size)
+                .addValue("offset", (long) page * size)
+                .addValue("total", articleCountService.getTotal());
+        jdbcTemplate.query(FEED_PAGE, parameters, rs -> {
+            // The driver has read the whole row by now; its UTF-8 bytes are copied as is, without building a String
+            try (InputStream json = rs.getBinaryStream(1)) {
+                json.transferTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
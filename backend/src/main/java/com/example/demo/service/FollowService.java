@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.event.FollowToggledEvent;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Follow;
+import com.example.demo.model.User;
+import com.example.demo.repository.FollowRepository;
+import com.example.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+@Service
+public class FollowService {
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Returns false when the user already followed the author
+    public boolean follow(String followerUsername, String authorUsername) {
+        User follower = findUser(followerUsername);
+        User author = findUser(authorUsername);
+        if (follower.getId().equals(author.getId())) {
+            throw new IllegalArgumentException("Users cannot follow themselves");
+        }
+        if (followRepository.existsByFollowerIdAndAuthorId(follower.getId(), author.getId())) {
+            return false;
+        }
+
+        try {
+            followRepository.save(new Follow(null, follower, author, null));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request followed first
+            return false;
+        }
+        eventPublisher.publishEvent(new FollowToggledEvent(follower.getId(), author.getId(), true));
+        return true;
+    }
+
+    // Returns false when the user did not follow the author
+    public boolean unfollow(String followerUsername, String authorUsername) {
+        User follower = findUser(followerUsername);
+        User author = findUser(authorUsername);
+        if (followRepository.deleteByFollowerIdAndAuthorId(follower.getId(), author.getId()) == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new FollowToggledEvent(follower.getId(), author.getId(), false));
+        return true;
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+    }
+}
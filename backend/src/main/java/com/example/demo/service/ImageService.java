@@ -0,0 +1,243 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Uploaded images on local disk under content-addressed names (SHA-256 of the bytes plus the format's extension),
+// with one fixed-size JPEG thumbnail each. Decoding and scaling run on a small bounded pool, so a burst of
+// uploads cannot take every CPU or fill the heap with decoded pixels; when the queue is full, uploads are refused.
+// Files never change once written, so they can be served with long-lived cache headers.
+@Service
+public class ImageService {
+    public static final String URL_PREFIX = "/api/images/";
+    public static final String THUMBNAIL_PATH = "thumbnails/";
+
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png|gif)");
+    private static final Pattern IMAGE_URL = Pattern.compile("(.*" + URL_PREFIX + ")" + NAME.pattern());
+    private static final Map<String, String> EXTENSIONS = Map.of("jpeg", "jpg", "png", "png", "gif", "gif");
+    private static final Map<String, String> CONTENT_TYPES = Map.of("jpg", "image/jpeg", "png", "image/png", "gif", "image/gif");
+
+    private final Path originals;
+    private final Path thumbnails;
+    private final int thumbnailWidth;
+    private final int thumbnailHeight;
+    private final long maxPixels;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor workers;
+
+    public ImageService(@Value("${app.images.dir:data/images}") String dir,
+                        @Value("${app.images.thumbnail-width:480}") int thumbnailWidth,
+                        @Value("${app.images.thumbnail-height:270}") int thumbnailHeight,
+                        @Value("${app.images.max-pixels:40000000}") long maxPixels,
+                        @Value("${app.images.workers:2}") int workerCount,
+                        @Value("${app.images.queue-capacity:32}") int queueCapacity,
+                        @Value("${app.images.timeout-ms:30000}") long timeoutMs) throws IOException {
+        this.originals = Files.createDirectories(Path.of(dir, "originals")).toRealPath();
+        this.thumbnails = Files.createDirectories(Path.of(dir, "thumbnails")).toRealPath();
+        this.thumbnailWidth = thumbnailWidth;
+        this.thumbnailHeight = thumbnailHeight;
+        this.maxPixels = maxPixels;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "image-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Stores the original and its thumbnail unless they already exist and returns the original's file name.
+    // Throws IllegalArgumentException for bytes that are not a supported image, and RejectedExecutionException
+    // when the workers are saturated.
+    public String store(byte[] bytes) {
+        String hash = sha256(bytes);
+        Future<String> result = workers.submit(() -> process(hash, bytes));
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Image processing failed", e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new RejectedExecutionException("Image processing timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while processing the image");
+        }
+    }
+
+    // Null when the name is not one this service produces, which also rules out path traversal
+    public Path original(String name) {
+        return NAME.matcher(name).matches() ? shard(originals, name) : null;
+    }
+
+    public Path thumbnail(String name) {
+        Matcher matcher = NAME.matcher(name);
+        return matcher.matches() && matcher.group(2).equals("jpg") ? shard(thumbnails, name) : null;
+    }
+
+    public static String contentType(String name) {
+        return CONTENT_TYPES.getOrDefault(name.substring(name.lastIndexOf('.') + 1), "application/octet-stream");
+    }
+
+    // Thumbnail of an image uploaded here, or null for images hosted elsewhere
+    public static String thumbnailUrlFor(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Matcher matcher = IMAGE_URL.matcher(imageUrl);
+        return matcher.matches() ? matcher.group(1) + THUMBNAIL_PATH + matcher.group(2) + ".jpg" : null;
+    }
+
+    private String process(String hash, byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String extension = EXTENSIONS.get(reader.getFormatName().toLowerCase());
+                if (extension == null) {
+                    throw new IllegalArgumentException("Only JPEG, PNG and GIF images are supported");
+                }
+                reader.setInput(input, true, true);
+                // Checked from the header, before any pixels are decoded
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image has more than " + maxPixels + " pixels");
+                }
+
+                String name = hash + "." + extension;
+                Path original = shard(originals, name);
+                if (Files.notExists(original)) {
+                    write(original, bytes);
+                }
+                Path thumbnail = shard(thumbnails, hash + ".jpg");
+                if (Files.notExists(thumbnail)) {
+                    write(thumbnail, thumbnailOf(reader));
+                }
+                return name;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Image could not be read");
+        }
+    }
+
+    // Scaled to cover the thumbnail box and center-cropped; large images are subsampled while decoding
+    private byte[] thumbnailOf(ImageReader reader) throws IOException {
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        ImageReadParam param = reader.getDefaultReadParam();
+        int subsampling = Math.max(1, Math.min(width / thumbnailWidth, height / thumbnailHeight) / 2);
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        BufferedImage source = reader.read(0, param);
+
+        double scale = Math.max((double) thumbnailWidth / source.getWidth(), (double) thumbnailHeight / source.getHeight());
+        int scaledWidth = (int) Math.ceil(source.getWidth() * scale);
+        int scaledHeight = (int) Math.ceil(source.getHeight() * scale);
+        BufferedImage target = new BufferedImage(thumbnailWidth, thumbnailHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Transparent areas become white, as JPEG has no alpha
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, thumbnailWidth, thumbnailHeight);
+            graphics.drawImage(source, (thumbnailWidth - scaledWidth) / 2, (thumbnailHeight - scaledHeight) / 2,
+                    scaledWidth, scaledHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam writeParam = writer.getDefaultWriteParam();
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            writeParam.setCompressionQuality(0.82f);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(target, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Written to a temporary file and moved into place, so a file under its final name is always complete.
+    // Disk errors are unchecked so they are not reported as unreadable images.
+    private static void write(Path path, byte[] bytes) {
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), ".upload", ".tmp");
+            try {
+                Files.write(temporary, bytes);
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Two hex characters of fan-out keep directories small
+    private static Path shard(Path root, String name) {
+        return root.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.CacheResyncEvent;
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.repository.LikeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes like counts to Server-Sent Events subscribers.
+//
+// Like toggles only mark an article dirty. Every coalesce window the dirty articles are counted with one
+// query and the new counts are merged into each subscriber's pending map, which holds at most one value per
+// subscribed article, so a viral article costs a subscriber one event per window and a slow consumer can
+// never queue more than its subscription size. Sends run on virtual threads; a subscriber whose send has
+// been stuck longer than the stall timeout is disconnected. Idle connections hold no thread.
+@Service
+public class LikeStreamService {
+    private static final Logger logger = LoggerFactory.getLogger(LikeStreamService.class);
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    private final int maxIds;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long stallTimeoutMs;
+
+    private final Map<Long, Set<Subscriber>> subscribersByArticle = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LikeStreamService(@Value("${app.like-stream.max-ids:100}") int maxIds,
+                             @Value("${app.like-stream.max-subscribers:20000}") int maxSubscribers,
+                             @Value("${app.like-stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${app.like-stream.stall-timeout-ms:10000}") long stallTimeoutMs) {
+        this.maxIds = maxIds;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.stallTimeoutMs = stallTimeoutMs;
+    }
+
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    // Returns null when the subscriber limit is reached
+    public SseEmitter subscribe(Set<Long> articleIds) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, articleIds);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        for (Long articleId : articleIds) {
+            subscribersByArticle.computeIfAbsent(articleId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        // Initial snapshot, so clients don't need a separate request for the starting counts. Taken after
+        // registering, so no toggle in between is missed; without it the emitter is never returned and none of
+        // its callbacks would release the slot.
+        Map<Long, Long> counts;
+        try {
+            counts = countLikes(articleIds);
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+        articleIds.forEach(id -> subscriber.pending.put(id, counts.getOrDefault(id, 0L)));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @EventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        if (subscribersByArticle.containsKey(event.articleId())) {
+            dirty.add(event.articleId());
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        if (subscribersByArticle.containsKey(event.article().getId())) {
+            dirty.add(event.article().getId());
+        }
+    }
+
+    // Marks an article as changed without a local like toggle, e.g. after a like on another node
+    public void markDirty(Long articleId) {
+        if (subscribersByArticle.containsKey(articleId)) {
+            dirty.add(articleId);
+        }
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        event.likeDeltas().keySet().forEach(this::markDirty);
+        event.deletedArticles().keySet().forEach(this::markDirty);
+    }
+
+    // Likes made elsewhere while disconnected were missed, so every subscribed count is read again
+    @EventListener(CacheResyncEvent.class)
+    public void onCacheResync() {
+        dirty.addAll(subscribersByArticle.keySet());
+    }
+
+    @Scheduled(fixedDelayString = "${app.like-stream.coalesce-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Set<Long> changed = new HashSet<>();
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            changed.add(iterator.next());
+            iterator.remove();
+        }
+
+        Map<Long, Long> counts = countLikes(changed);
+        long now = System.currentTimeMillis();
+        Set<Subscriber> touched = new HashSet<>();
+        for (Long articleId : changed) {
+            Set<Subscriber> interested = subscribersByArticle.get(articleId);
+            if (interested == null) {
+                continue;
+            }
+            long count = counts.getOrDefault(articleId, 0L);
+            for (Subscriber subscriber : interested) {
+                subscriber.pending.put(articleId, count);
+                touched.add(subscriber);
+            }
+        }
+        for (Subscriber subscriber : touched) {
+            if (subscriber.sending.get() && now - subscriber.sendStartedAt > stallTimeoutMs) {
+                // Slow consumer: drop it rather than let its updates pile up
+                logger.debug("Disconnecting stalled like stream subscriber");
+                subscriber.emitter.complete();
+                unsubscribe(subscriber);
+            } else {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // Comments keep proxies from closing idle streams and reveal clients that went away
+    @Scheduled(fixedDelayString = "${app.like-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.sending.get()) {
+                senders.execute(() -> send(subscriber, SseEmitter.event().comment("ping")));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            subscriber.sendStartedAt = System.currentTimeMillis();
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Map<Long, Long> batch = new HashMap<>();
+            for (Iterator<Map.Entry<Long, Long>> iterator = subscriber.pending.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<Long, Long> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+                iterator.remove();
+            }
+            if (!batch.isEmpty() && !send(subscriber, SseEmitter.event().name("likes").data(batch, MediaType.APPLICATION_JSON))) {
+                return;
+            }
+            subscriber.sending.set(false);
+            // An update may have arrived after the map was drained but before the flag was cleared
+            if (subscriber.pending.isEmpty() || !subscriber.sending.compareAndSet(false, true)) {
+                return;
+            }
+            subscriber.sendStartedAt = System.currentTimeMillis();
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            synchronized (subscriber) {
+                subscriber.emitter.send(event);
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(subscriber);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        for (Long articleId : subscriber.articleIds) {
+            subscribersByArticle.computeIfPresent(articleId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private Map<Long, Long> countLikes(Set<Long> articleIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        List<LikeRepository.ArticleLikeCount> rows = likeRepository.countByArticleIds(articleIds);
+        rows.forEach(row -> counts.put(row.getArticleId(), row.getLikeCount()));
+        return counts;
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<Long> articleIds;
+        // Latest count per article not yet sent; bounded by the subscription size
+        final Map<Long, Long> pending = new ConcurrentHashMap<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Set<Long> articleIds) {
+            this.emitter = emitter;
+            this.articleIds = articleIds;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.index.CoLikeSimilarity;
+import com.example.demo.model.RelatedArticles;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.RelatedArticlesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// "Readers also liked": the top-K articles most often liked by the same users, recomputed periodically from the
+// likes table and served from an immutable in-memory snapshot. The snapshot is also written to related_articles
+// so a restart serves recommendations right away instead of recomputing first. With several instances one
+// recomputes under a cluster lock; the others restore its snapshot once the lock is free again. The work runs
+// on its own thread, so it never holds up the other scheduled tasks.
+@Service
+public class RelatedArticleService {
+    private static final Logger logger = LoggerFactory.getLogger(RelatedArticleService.class);
+    private static final String LOCK = "related-articles";
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private RelatedArticlesRepository relatedArticlesRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClusterLockService clusterLockService;
+
+    private final int topK;
+    private final int maxLikesPerUser;
+    private final int parallelism;
+    private final AtomicBoolean computing = new AtomicBoolean();
+    private volatile boolean restorePending;
+
+    private volatile CoLikeSimilarity.Neighbors neighbors = CoLikeSimilarity.Neighbors.empty();
+
+    public RelatedArticleService(@Value("${app.related.top-k:20}") int topK,
+                                 @Value("${app.related.max-likes-per-user:1000}") int maxLikesPerUser,
+                                 @Value("${app.related.parallelism:0}") int parallelism) {
+        this.topK = topK;
+        this.maxLikesPerUser = maxLikesPerUser;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!restore()) {
+            // First start: compute in the background, the endpoint answers with no recommendations meanwhile
+            Thread.ofVirtual().name("related-articles").start(this::recompute);
+        }
+    }
+
+    private boolean restore() {
+        List<RelatedArticles> rows = relatedArticlesRepository.findAll();
+        if (rows.isEmpty()) {
+            return false;
+        }
+        long[] articleIds = new long[rows.size()];
+        long[][] related = new long[rows.size()][];
+        for (int i = 0; i < rows.size(); i++) {
+            articleIds[i] = rows.get(i).getArticleId();
+            related[i] = parseIds(rows.get(i).getRelatedIds());
+        }
+        neighbors = CoLikeSimilarity.Neighbors.of(articleIds, related);
+        logger.info("Related articles restored for {} articles", rows.size());
+        return true;
+    }
+
+    public List<Long> relatedArticleIds(Long articleId, int limit) {
+        long[] related = neighbors.get(articleId);
+        return Arrays.stream(related, 0, Math.min(limit, related.length)).boxed().toList();
+    }
+
+    @Scheduled(cron = "${app.related.cron:0 45 3 * * *}")
+    public void scheduleRecompute() {
+        Thread.ofVirtual().name("related-articles").start(this::recompute);
+    }
+
+    public void recompute() {
+        if (!computing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Another instance is computing the same snapshot; its result is restored on a later tick
+            restorePending = !clusterLockService.tryRunExclusively(LOCK, this::computeAndStore);
+        } finally {
+            computing.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.related.restore-interval-ms:60000}")
+    public void restoreIfPending() {
+        if (restorePending && clusterLockService.tryRunExclusively(LOCK, this::restore)) {
+            restorePending = false;
+        }
+    }
+
+    private void computeAndStore() {
+        long started = System.currentTimeMillis();
+        CoLikeSimilarity.Builder builder = new CoLikeSimilarity.Builder(maxLikesPerUser);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<LikeRepository.UserArticleRow> likes = likeRepository.streamUserArticlePairs()) {
+                likes.forEach(like -> builder.add(like.getUserId(), like.getArticleId()));
+            }
+        });
+        CoLikeSimilarity similarity = builder.build();
+
+        CoLikeSimilarity.Neighbors computed;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            computed = similarity.topNeighbors(topK, pool);
+        } finally {
+            pool.shutdown();
+        }
+        neighbors = computed;
+        store(computed);
+        logger.info("Related articles computed for {} articles in {} ms", similarity.articleCount(),
+                System.currentTimeMillis() - started);
+    }
+
+    private void store(CoLikeSimilarity.Neighbors computed) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RelatedArticles> rows = new ArrayList<>();
+        for (int i = 0; i < computed.size(); i++) {
+            long[] related = computed.neighborsAt(i);
+            if (related.length > 0) {
+                String ids = Arrays.stream(related).mapToObj(Long::toString).collect(Collectors.joining(","));
+                rows.add(new RelatedArticles(computed.articleIdAt(i), ids, now, true));
+            }
+        }
+        // One transaction, so readers see the old snapshot until the new one is complete
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            relatedArticlesRepository.deleteAllInBatch();
+            relatedArticlesRepository.saveAll(rows);
+        });
+    }
+
+    private static long[] parseIds(String ids) {
+        return ids.isEmpty() ? new long[0] : Arrays.stream(ids.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.CacheResyncEvent;
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.event.UserRegisteredEvent;
+import com.example.demo.index.PrefixIndex;
+import com.example.demo.index.PrefixIndex.Entry;
+import com.example.demo.index.PrefixIndex.Type;
+import com.example.demo.model.Article;
+import com.example.demo.payload.response.SuggestionResponse;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Search-as-you-type over article titles and usernames, served from an in-memory PrefixIndex.
+// Articles are weighted by likes and users by number of articles; the index is built at startup
+// and kept current from article, like and signup events, local and from other nodes.
+@Service
+public class SuggestionService {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final int capacity;
+    private volatile PrefixIndex index;
+
+    public SuggestionService(@Value("${app.suggest.capacity:10}") int capacity) {
+        this.capacity = capacity;
+        this.index = new PrefixIndex(capacity);
+    }
+
+    // A resync fills a fresh index and swaps it in, so searches never see it half-built
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    public void buildIndex() {
+        long started = System.currentTimeMillis();
+        PrefixIndex index = new PrefixIndex(capacity);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<UserRepository.SuggestionRow> users = userRepository.streamSuggestionRows()) {
+                users.forEach(row -> putUser(index, row.getId(), row.getUsername(), row.getArticleCount()));
+            }
+            try (Stream<ArticleRepository.SuggestionRow> articles = articleRepository.streamSuggestionRows()) {
+                articles.forEach(row -> putArticle(index, row.getId(), row.getTitle(), row.getSlug(),
+                        row.getAuthorUsername(), row.getLikeCount()));
+            }
+        });
+        this.index = index;
+        logger.info("Suggestion index built with {} entries in {} ms", index.size(), System.currentTimeMillis() - started);
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        PrefixIndex index = this.index;
+        return index.search(prefix, Math.min(limit, index.capacity())).stream()
+                .map(entry -> new SuggestionResponse(entry.type().name().toLowerCase(), entry.id(), entry.label(),
+                        entry.slug(), entry.owner()))
+                .toList();
+    }
+
+    @EventListener
+    public void onArticleSaved(ArticleSavedEvent event) {
+        Article article = event.article();
+        String username = article.getAuthor().getUsername();
+        Entry existing = index.get(Type.ARTICLE, article.getId());
+        putArticle(index, article.getId(), article.getTitle(), article.getSlug(), username,
+                existing != null ? existing.weight() : 0);
+        if (event.created()) {
+            adjustUserWeight(article.getAuthor().getId(), username, 1);
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        Article article = event.article();
+        if (index.remove(Type.ARTICLE, article.getId())) {
+            adjustUserWeight(article.getAuthor().getId(), article.getAuthor().getUsername(), -1);
+        }
+    }
+
+    // Likes on other nodes arrive as CacheInvalidationEvent.likeDeltas
+    @EventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        index.addWeight(Type.ARTICLE, event.articleId(), event.liked() ? 1 : -1);
+    }
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        putUser(index, event.user().getId(), event.user().getUsername(), 0);
+    }
+
+    // Changes from other nodes carry ids only; the current rows, weights included, are read back
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        PrefixIndex index = this.index;
+        event.deletedArticles().keySet().forEach(id -> index.remove(Type.ARTICLE, id));
+        Set<Long> articleIds = new HashSet<>(event.changedArticleIds());
+        articleIds.addAll(event.likeDeltas().keySet());
+        articleIds.removeAll(event.deletedArticles().keySet());
+        if (!articleIds.isEmpty()) {
+            articleRepository.findSuggestionRowsByIdIn(articleIds).forEach(row -> putArticle(index, row.getId(),
+                    row.getTitle(), row.getSlug(), row.getAuthorUsername(), row.getLikeCount()));
+        }
+        if (!event.changedUserIds().isEmpty()) {
+            userRepository.findSuggestionRowsByIdIn(event.changedUserIds())
+                    .forEach(row -> putUser(index, row.getId(), row.getUsername(), row.getArticleCount()));
+        }
+    }
+
+    private void adjustUserWeight(Long userId, String username, long delta) {
+        Entry existing = index.get(Type.USER, userId);
+        long weight = existing != null ? existing.weight() : 0;
+        putUser(index, userId, username, Math.max(0, weight + delta));
+    }
+
+    private static void putArticle(PrefixIndex index, Long id, String title, String slug, String authorUsername,
+                                   long likes) {
+        index.put(new Entry(Type.ARTICLE, id, title, slug, authorUsername, likes), PrefixIndex.tokens(title));
+    }
+
+    private static void putUser(PrefixIndex index, Long id, String username, long articles) {
+        index.put(new Entry(Type.USER, id, username, null, null, articles), PrefixIndex.tokens(username));
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.CacheResyncEvent;
+import com.example.demo.model.Article;
+import com.example.demo.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriUtils;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Sitemap and RSS/Atom documents, held in memory pre-rendered and gzipped so crawlers and feed readers never
+// reach the database. The entries behind them are loaded at startup and kept current from article events, local
+// and from other nodes; a write only marks the documents it touches stale, and those are re-rendered once on the
+// next request.
+@Service
+public class SyndicationService {
+    private static final Logger logger = LoggerFactory.getLogger(SyndicationService.class);
+
+    private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newInstance();
+    private static final Comparator<FeedEntry> NEWEST_FIRST =
+            Comparator.comparing(FeedEntry::createdAt).thenComparingLong(FeedEntry::id).reversed();
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Base URL of the site the article pages are served from
+    @Value("${app.syndication.site-url:http://localhost:3000}")
+    private String siteUrl;
+
+    @Value("${app.syndication.title:Robenhod}")
+    private String title;
+
+    @Value("${app.syndication.feed-size:20}")
+    private int feedSize;
+
+    // At most the protocol's 50,000 URLs per sitemap file
+    @Value("${app.syndication.sitemap-shard-size:50000}")
+    private int shardSize;
+
+    // Rendered bytes, the same bytes gzipped at the highest level, and a tag derived from their contents
+    public record Document(byte[] body, byte[] gzipped, String etag) {
+    }
+
+    private record SitemapEntry(String path, LocalDateTime createdAt) {
+    }
+
+    private record FeedEntry(long id, String path, String title, String description, String author,
+                             LocalDateTime createdAt) {
+    }
+
+    private static final class Shard {
+        private final TreeMap<Long, SitemapEntry> entries = new TreeMap<>();
+        private Document document;
+    }
+
+    // Sharded by id / shardSize: ids are never reused, so a shard stays within the limit and a write
+    // re-renders one shard and the index, never the files after it
+    private final TreeMap<Integer, Shard> shards = new TreeMap<>();
+    private Document sitemapIndex;
+    private Document emptySitemap;
+
+    // Newest first, at most feedSize entries
+    private final List<FeedEntry> feed = new ArrayList<>();
+    // Set when an entry leaves the feed and the one after it has to be read back
+    private boolean feedIncomplete;
+    private Document rss;
+    private Document atom;
+
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    public synchronized void load() {
+        long started = System.currentTimeMillis();
+        shards.clear();
+        sitemapIndex = null;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<ArticleRepository.SitemapRow> rows = articleRepository.streamSitemapRows()) {
+                rows.forEach(row -> putSitemapEntry(row.getId(),
+                        new SitemapEntry(pathOf(row.getAuthorUsername(), row.getSlug()), row.getCreatedAt())));
+            }
+        });
+        reloadFeed();
+        logger.info("Sitemap loaded with {} shards in {} ms", shards.size(), System.currentTimeMillis() - started);
+    }
+
+    // The single sitemap file while everything fits in one shard, otherwise a sitemap index over the shards
+    public synchronized Document sitemap() {
+        if (shards.isEmpty()) {
+            if (emptySitemap == null) {
+                emptySitemap = render(xml -> {
+                    xml.writeStartElement("urlset");
+                    xml.writeDefaultNamespace(SITEMAP_NS);
+                    xml.writeEndElement();
+                });
+            }
+            return emptySitemap;
+        }
+        if (shards.size() == 1) {
+            return renderShard(shards.firstEntry().getValue());
+        }
+        if (sitemapIndex == null) {
+            sitemapIndex = render(xml -> {
+                xml.writeStartElement("sitemapindex");
+                xml.writeDefaultNamespace(SITEMAP_NS);
+                for (Map.Entry<Integer, Shard> shard : shards.entrySet()) {
+                    xml.writeStartElement("sitemap");
+                    element(xml, "loc", siteUrl + "/sitemap-" + shard.getKey() + ".xml");
+                    shard.getValue().entries.values().stream()
+                            .map(SitemapEntry::createdAt)
+                            .max(Comparator.naturalOrder())
+                            .ifPresent(lastmod -> element(xml, "lastmod", lastmod.toLocalDate().toString()));
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+            });
+        }
+        return sitemapIndex;
+    }
+
+    // Null when the shard has no articles
+    public synchronized Document sitemapShard(int number) {
+        Shard shard = shards.get(number);
+        return shard != null ? renderShard(shard) : null;
+    }
+
+    public synchronized Document rss() {
+        ensureFeed();
+        if (rss == null) {
+            DateTimeFormatter rfc1123 = DateTimeFormatter.RFC_1123_DATE_TIME;
+            rss = render(xml -> {
+                xml.writeStartElement("rss");
+                xml.writeAttribute("version", "2.0");
+                xml.writeNamespace("atom", ATOM_NS);
+                xml.writeStartElement("channel");
+                element(xml, "title", title);
+                element(xml, "link", siteUrl + "/");
+                element(xml, "description", "Latest articles on " + title);
+                xml.writeEmptyElement("atom", "link", ATOM_NS);
+                xml.writeAttribute("href", siteUrl + "/rss.xml");
+                xml.writeAttribute("rel", "self");
+                xml.writeAttribute("type", "application/rss+xml");
+                element(xml, "lastBuildDate", rfc1123.format(updated()));
+                for (FeedEntry entry : feed) {
+                    xml.writeStartElement("item");
+                    element(xml, "title", entry.title());
+                    element(xml, "link", siteUrl + entry.path());
+                    xml.writeStartElement("guid");
+                    xml.writeAttribute("isPermaLink", "true");
+                    xml.writeCharacters(siteUrl + entry.path());
+                    xml.writeEndElement();
+                    element(xml, "description", entry.description());
+                    element(xml, "pubDate", rfc1123.format(zoned(entry.createdAt())));
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+                xml.writeEndElement();
+            });
+        }
+        return rss;
+    }
+
+    public synchronized Document atom() {
+        ensureFeed();
+        if (atom == null) {
+            DateTimeFormatter rfc3339 = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+            atom = render(xml -> {
+                xml.writeStartElement("feed");
+                xml.writeDefaultNamespace(ATOM_NS);
+                element(xml, "title", title);
+                element(xml, "id", siteUrl + "/");
+                link(xml, null, siteUrl + "/");
+                link(xml, "self", siteUrl + "/atom.xml");
+                element(xml, "updated", rfc3339.format(updated()));
+                for (FeedEntry entry : feed) {
+                    String url = siteUrl + entry.path();
+                    String date = rfc3339.format(zoned(entry.createdAt()));
+                    xml.writeStartElement("entry");
+                    element(xml, "title", entry.title());
+                    element(xml, "id", url);
+                    link(xml, null, url);
+                    element(xml, "published", date);
+                    element(xml, "updated", date);
+                    xml.writeStartElement("author");
+                    element(xml, "name", entry.author());
+                    xml.writeEndElement();
+                    element(xml, "summary", entry.description());
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+            });
+        }
+        return atom;
+    }
+
+    @EventListener
+    public synchronized void onArticleSaved(ArticleSavedEvent event) {
+        Article article = event.article();
+        String username = article.getAuthor().getUsername();
+        put(new FeedEntry(article.getId(), pathOf(username, article.getSlug()), article.getTitle(),
+                article.getDescription(), username, article.getCreatedAt()), event.created());
+    }
+
+    @EventListener
+    public synchronized void onArticleDeleted(ArticleDeletedEvent event) {
+        remove(event.article().getId());
+    }
+
+    // Changes from other nodes: the rows are read back before taking the lock
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        List<ArticleRepository.FeedRow> rows = event.changedArticleIds().isEmpty()
+                ? List.of()
+                : articleRepository.findFeedRowsByIdIn(event.changedArticleIds());
+        synchronized (this) {
+            for (ArticleRepository.FeedRow row : rows) {
+                put(feedEntry(row), event.createdArticles().containsKey(row.getId()));
+            }
+            event.deletedArticles().keySet().forEach(this::remove);
+        }
+    }
+
+    private void put(FeedEntry entry, boolean created) {
+        putSitemapEntry(entry.id(), new SitemapEntry(entry.path(), entry.createdAt()));
+
+        boolean present = feed.removeIf(existing -> existing.id() == entry.id());
+        if (present || created) {
+            int position = 0;
+            while (position < feed.size() && NEWEST_FIRST.compare(feed.get(position), entry) < 0) {
+                position++;
+            }
+            if (position < feedSize) {
+                feed.add(position, entry);
+                if (feed.size() > feedSize) {
+                    feed.remove(feed.size() - 1);
+                }
+                invalidateFeed();
+            }
+        }
+    }
+
+    private void remove(long id) {
+        Shard shard = shards.get(shardOf(id));
+        if (shard != null && shard.entries.remove(id) != null) {
+            if (shard.entries.isEmpty()) {
+                shards.remove(shardOf(id));
+            }
+            shard.document = null;
+            sitemapIndex = null;
+        }
+        if (feed.removeIf(existing -> existing.id() == id)) {
+            // Read back on the next feed request, outside the deleting transaction
+            feedIncomplete = true;
+            invalidateFeed();
+        }
+    }
+
+    private void putSitemapEntry(long id, SitemapEntry entry) {
+        Shard shard = shards.computeIfAbsent(shardOf(id), number -> new Shard());
+        SitemapEntry previous = shard.entries.put(id, entry);
+        if (!entry.equals(previous)) {
+            shard.document = null;
+            sitemapIndex = null;
+        }
+    }
+
+    private Document renderShard(Shard shard) {
+        if (shard.document == null) {
+            shard.document = render(xml -> {
+                xml.writeStartElement("urlset");
+                xml.writeDefaultNamespace(SITEMAP_NS);
+                for (SitemapEntry entry : shard.entries.values()) {
+                    xml.writeStartElement("url");
+                    element(xml, "loc", siteUrl + entry.path());
+                    if (entry.createdAt() != null) {
+                        element(xml, "lastmod", entry.createdAt().toLocalDate().toString());
+                    }
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+            });
+        }
+        return shard.document;
+    }
+
+    private void ensureFeed() {
+        if (feedIncomplete) {
+            reloadFeed();
+        }
+    }
+
+    private void reloadFeed() {
+        feed.clear();
+        for (ArticleRepository.FeedRow row : articleRepository.findLatestFeedRows(PageRequest.of(0, feedSize))) {
+            feed.add(feedEntry(row));
+        }
+        feedIncomplete = false;
+        invalidateFeed();
+    }
+
+    private static FeedEntry feedEntry(ArticleRepository.FeedRow row) {
+        return new FeedEntry(row.getId(), pathOf(row.getAuthorUsername(), row.getSlug()), row.getTitle(),
+                row.getDescription(), row.getAuthorUsername(), row.getCreatedAt());
+    }
+
+    private void invalidateFeed() {
+        rss = null;
+        atom = null;
+    }
+
+    private ZonedDateTime updated() {
+        return feed.isEmpty()
+                ? Instant.EPOCH.atZone(ZoneId.of("UTC"))
+                : zoned(feed.get(0).createdAt());
+    }
+
+    private int shardOf(long id) {
+        return (int) (id / shardSize);
+    }
+
+    // The frontend's article route, /:username/:slug
+    private static String pathOf(String username, String slug) {
+        return "/" + UriUtils.encodePathSegment(username, StandardCharsets.UTF_8)
+                + "/" + UriUtils.encodePathSegment(slug, StandardCharsets.UTF_8);
+    }
+
+    private static ZonedDateTime zoned(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(ChronoUnit.SECONDS).atZone(ZoneId.systemDefault());
+    }
+
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        if (rel != null) {
+            xml.writeAttribute("rel", rel);
+        }
+        xml.writeAttribute("href", href);
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) {
+        try {
+            xml.writeStartElement(name);
+            xml.writeCharacters(text != null ? text : "");
+            xml.writeEndElement();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface XmlBody {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+
+    private static Document render(XmlBody body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = XML_OUTPUT.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            body.write(xml);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not render XML", e);
+        }
+        byte[] bytes = out.toByteArray();
+        return new Document(bytes, gzip(bytes), etag(bytes));
+    }
+
+    // Compressed once per change and served many times, so the slowest level pays off
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
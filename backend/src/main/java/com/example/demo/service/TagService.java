@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.CacheResyncEvent;
+import com.example.demo.index.TagIndex;
+import com.example.demo.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Tag filters over the feed, served from an in-memory TagIndex that is loaded at startup and kept current
+// from article events, local and from other nodes. A resync builds a fresh index and swaps it in.
+@Service
+public class TagService {
+    private static final Logger logger = LoggerFactory.getLogger(TagService.class);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile TagIndex index = new TagIndex();
+
+    @EventListener({ApplicationReadyEvent.class, CacheResyncEvent.class})
+    public void buildIndex() {
+        long started = System.currentTimeMillis();
+        TagIndex index = new TagIndex();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<ArticleRepository.TagRow> rows = articleRepository.streamTagRows()) {
+                index.load(rows.map(row -> Map.entry(row.getId(), row.getTags())).iterator());
+            }
+        });
+        this.index = index;
+        logger.info("Tag index built for {} articles in {} ms", index.size(), System.currentTimeMillis() - started);
+    }
+
+    public TagIndex.Result findArticleIds(List<String> tags, boolean matchAll, Pageable pageable) {
+        return index.find(TagIndex.normalize(tags), matchAll, pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @EventListener
+    public void onArticleSaved(ArticleSavedEvent event) {
+        index.put(event.article().getId(), event.article().getTags());
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        index.remove(event.article().getId());
+    }
+
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if (!event.changedArticleIds().isEmpty()) {
+            articleRepository.findTagRowsByIdIn(event.changedArticleIds())
+                    .forEach(row -> index.put(row.getId(), row.getTags()));
+        }
+        event.deletedArticles().keySet().forEach(index::remove);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.FollowToggledEvent;
+import com.example.demo.model.Article;
+import com.example.demo.model.AuthorStats;
+import com.example.demo.model.TimelineEntry;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.AuthorStatsRepository;
+import com.example.demo.repository.FollowRepository;
+import com.example.demo.repository.TimelineEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Home timelines of followed authors, built by fan-out on write: publishing an article inserts it into the
+// timeline_entries of every follower with one INSERT ... SELECT, so reading a page is a single index range scan.
+// Authors with at least fanOutThreshold followers are skipped on write; their latest articles are merged in on
+// read instead, which keeps a celebrity's post from writing millions of rows. Timelines are trimmed to maxLength.
+@Service
+public class TimelineService {
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator.comparing(TimelineEntry::getCreatedAt)
+            .thenComparing(TimelineEntry::getArticleId).reversed();
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    private final long fanOutThreshold;
+    private final int maxLength;
+    private final int backfillSize;
+
+    public record Page(List<Long> articleIds, String nextCursor) {
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long articleId) {
+    }
+
+    public TimelineService(@Value("${app.timeline.fan-out-threshold:10000}") long fanOutThreshold,
+                           @Value("${app.timeline.max-length:800}") int maxLength,
+                           @Value("${app.timeline.backfill-size:20}") int backfillSize) {
+        this.fanOutThreshold = fanOutThreshold;
+        this.maxLength = maxLength;
+        this.backfillSize = backfillSize;
+    }
+
+    // Throws IllegalArgumentException for a malformed cursor
+    public Page getTimeline(Long userId, String cursor, int size) {
+        Cursor after = cursor != null && !cursor.isBlank() ? decode(cursor) : null;
+        PageRequest limit = PageRequest.of(0, size);
+
+        List<TimelineEntry> entries = new ArrayList<>(after == null
+                ? timelineEntryRepository.findFirstPage(userId, limit)
+                : timelineEntryRepository.findPageBefore(userId, after.createdAt(), after.articleId(), limit));
+
+        List<Long> pulledAuthors = followRepository.findFollowedAuthorsWithFollowersAtLeast(userId, fanOutThreshold);
+        if (!pulledAuthors.isEmpty()) {
+            List<ArticleRepository.AuthorArticleRow> rows = after == null
+                    ? articleRepository.findLatestByAuthors(pulledAuthors, limit)
+                    : articleRepository.findLatestByAuthorsBefore(pulledAuthors, after.createdAt(), after.articleId(), limit);
+            rows.forEach(row -> entries.add(new TimelineEntry(userId, row.getId(), row.getAuthorId(), row.getCreatedAt())));
+            entries.sort(NEWEST_FIRST);
+        }
+
+        // An author who crossed the threshold can have the same article both fanned out and pulled
+        Set<Long> ids = new LinkedHashSet<>();
+        TimelineEntry last = null;
+        for (TimelineEntry entry : entries) {
+            if (ids.size() == size) {
+                break;
+            }
+            if (ids.add(entry.getArticleId())) {
+                last = entry;
+            }
+        }
+        String next = ids.size() == size && last != null ? encode(new Cursor(last.getCreatedAt(), last.getArticleId())) : null;
+        return new Page(new ArrayList<>(ids), next);
+    }
+
+    @EventListener
+    public void onArticleSaved(ArticleSavedEvent event) {
+        if (!event.created()) {
+            return;
+        }
+        Article article = event.article();
+        Long authorId = article.getAuthor().getId();
+        if (followerCount(authorId) < fanOutThreshold) {
+            timelineEntryRepository.fanOut(article.getId(), authorId, article.getCreatedAt());
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        timelineEntryRepository.deleteByArticleId(event.article().getId());
+    }
+
+    @EventListener
+    public void onFollowToggled(FollowToggledEvent event) {
+        if (!event.following()) {
+            timelineEntryRepository.deleteByUserIdAndAuthorId(event.followerId(), event.authorId());
+        } else if (followerCount(event.authorId()) < fanOutThreshold) {
+            // Pulled authors are read live, everyone else is copied in so the timeline isn't empty until they post
+            timelineEntryRepository.backfill(event.followerId(), event.authorId(), backfillSize);
+        }
+    }
+
+    @Scheduled(cron = "${app.timeline.trim-cron:0 30 * * * *}")
+    public void trim() {
+        int removed = timelineEntryRepository.trim(maxLength);
+        if (removed > 0) {
+            logger.info("Trimmed {} timeline entries beyond {} per user", removed, maxLength);
+        }
+    }
+
+    private long followerCount(Long authorId) {
+        return authorStatsRepository.findById(authorId).map(AuthorStats::getFollowerCount).orElse(0L);
+    }
+
+    private static String encode(Cursor cursor) {
+        String raw = cursor.createdAt() + "|" + cursor.articleId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
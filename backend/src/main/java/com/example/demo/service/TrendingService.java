@@ -0,0 +1,264 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.model.TrendingScore;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.TrendingScoreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+// Ranks articles by likes with exponential time decay, updated incrementally on every like toggle.
+//
+// A like at time t contributes exp(-lambda * (now - t)) to an article's score. Every score decays by the
+// same factor, so articles are ranked by key = log(sum exp(lambda * (t_i - EPOCH))), which never changes
+// unless a like is added or removed and grows only linearly with time, so it cannot overflow.
+@Service
+public class TrendingService {
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final double REMOVAL_EPSILON = 1e-9;
+    private static final String LOCK = "trending-scores";
+
+    private record Ranked(long articleId, double key) {
+    }
+
+    private static final Comparator<Ranked> BY_KEY = Comparator.comparingDouble(Ranked::key).reversed()
+            .thenComparingLong(Ranked::articleId);
+
+    @Autowired
+    private TrendingScoreRepository trendingScoreRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClusterLockService clusterLockService;
+
+    @Value("${app.trending.checkpoint-interval-ms:60000}")
+    private long checkpointIntervalMs;
+
+    private final double lambda;
+    private final Duration halfLife;
+    private final int maxTracked;
+    private final double minScore;
+
+    private final ConcurrentHashMap<Long, Ranked> scores = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Ranked> ranking = new ConcurrentSkipListSet<>(BY_KEY);
+    // Articles changed since the last checkpoint
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public TrendingService(@Value("${app.trending.half-life-hours:24}") double halfLifeHours,
+                           @Value("${app.trending.max-tracked:10000}") int maxTracked,
+                           @Value("${app.trending.min-score:0.05}") double minScore) {
+        this.halfLife = Duration.ofMinutes(Math.round(halfLifeHours * 60));
+        this.lambda = Math.log(2) / halfLife.toSeconds();
+        this.maxTracked = maxTracked;
+        this.minScore = minScore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<TrendingScore> checkpoint = trendingScoreRepository.findAll();
+        if (!checkpoint.isEmpty()) {
+            checkpoint.forEach(score -> put(new Ranked(score.getArticleId(), score.getScore())));
+            logger.info("Trending scores restored for {} articles", scores.size());
+            return;
+        }
+
+        // No checkpoint yet: replay recent likes once; older ones have decayed below minScore anyway
+        LocalDateTime since = LocalDateTime.now().minus(halfLife.multipliedBy(10));
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<LikeRepository.LikeTimeRow> likes = likeRepository.streamLikesSince(since)) {
+                likes.forEach(like -> addLike(like.getArticleId(), like.getCreatedAt()));
+            }
+        });
+        logger.info("Trending scores rebuilt from likes for {} articles", scores.size());
+    }
+
+    public List<Long> topArticleIds(int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Ranked> iterator = ranking.iterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(iterator.next().articleId());
+        }
+        return ids;
+    }
+
+    // Current decayed score, roughly "likes in the last half-life"
+    public double scoreOf(Long articleId) {
+        Ranked ranked = scores.get(articleId);
+        return ranked != null ? Math.exp(ranked.key() - keyAt(LocalDateTime.now())) : 0;
+    }
+
+    @EventListener
+    public void onLikeToggled(LikeToggledEvent event) {
+        if (event.liked()) {
+            addLike(event.articleId(), event.likedAt());
+        } else {
+            removeLike(event.articleId(), event.likedAt());
+        }
+    }
+
+    @EventListener
+    public void onArticleDeleted(ArticleDeletedEvent event) {
+        remove(event.article().getId());
+    }
+
+    // Likes on other nodes arrive as net counts without their times, so they are scored as of now. Net unlikes
+    // are skipped: without the time of the like they undo, removing one could wipe out an older score.
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        event.likeDeltas().forEach((articleId, delta) -> {
+            for (int i = 0; i < delta; i++) {
+                addLike(articleId, now);
+            }
+        });
+        event.deletedArticles().keySet().forEach(this::remove);
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        double threshold = keyAt(LocalDateTime.now()) + Math.log(minScore);
+        for (Ranked ranked : ranking.descendingSet()) {
+            if (ranked.key() >= threshold) {
+                break;
+            }
+            if (scores.remove(ranked.articleId(), ranked)) {
+                ranking.remove(ranked);
+                dirty.add(ranked.articleId());
+            }
+        }
+
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> articleIds = new ArrayList<>();
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            articleIds.add(iterator.next());
+            iterator.remove();
+        }
+        try {
+            clusterLockService.tryRunExclusively(LOCK, () -> write(articleIds));
+        } catch (RuntimeException e) {
+            dirty.addAll(articleIds);
+            logger.warn("Trending checkpoint failed, retrying with the next one: {}", e.getMessage());
+        }
+    }
+
+    // Instances see the same likes, their own with exact times and the others' as of when they arrived. One
+    // checkpoints per interval; an instance that finds a checkpoint younger than half an interval, or the lock
+    // held, leaves its changes to that one.
+    private void write(List<Long> articleIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime latest = trendingScoreRepository.findLatestUpdate();
+        if (latest != null && latest.isAfter(now.minus(Duration.ofMillis(checkpointIntervalMs / 2)))) {
+            return;
+        }
+        List<TrendingScore> updated = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long articleId : articleIds) {
+            Ranked ranked = scores.get(articleId);
+            if (ranked != null) {
+                updated.add(new TrendingScore(articleId, ranked.key(), now));
+            } else {
+                removed.add(articleId);
+            }
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            trendingScoreRepository.saveAll(updated);
+            trendingScoreRepository.deleteAllByIdInBatch(removed);
+        });
+    }
+
+    private void addLike(Long articleId, LocalDateTime likedAt) {
+        double x = keyAt(likedAt);
+        scores.compute(articleId, (id, old) -> {
+            double key = x;
+            if (old != null) {
+                ranking.remove(old);
+                key = Math.max(old.key(), x) + Math.log1p(Math.exp(-Math.abs(old.key() - x)));
+            }
+            Ranked next = new Ranked(id, key);
+            ranking.add(next);
+            return next;
+        });
+        dirty.add(articleId);
+
+        while (scores.size() > maxTracked) {
+            Ranked lowest = ranking.pollLast();
+            if (lowest == null) {
+                break;
+            }
+            // Waits for a compute of the same article in flight, which may have ranked the entry just polled
+            // before storing it. A newer entry stays and keeps its place in the ranking.
+            scores.computeIfPresent(lowest.articleId(), (id, current) -> {
+                if (current.equals(lowest)) {
+                    dirty.add(id);
+                    return null;
+                }
+                ranking.add(current);
+                return current;
+            });
+        }
+    }
+
+    private void removeLike(Long articleId, LocalDateTime likedAt) {
+        double x = keyAt(likedAt);
+        scores.computeIfPresent(articleId, (id, old) -> {
+            ranking.remove(old);
+            // Within rounding of the key the removed like was the last contribution
+            if (old.key() - x < REMOVAL_EPSILON) {
+                return null;
+            }
+            double key = old.key() + Math.log1p(-Math.exp(x - old.key()));
+            Ranked next = new Ranked(id, key);
+            ranking.add(next);
+            return next;
+        });
+        dirty.add(articleId);
+    }
+
+    private void remove(Long articleId) {
+        Ranked removed = scores.remove(articleId);
+        if (removed != null) {
+            ranking.remove(removed);
+            dirty.add(removed.articleId());
+        }
+    }
+
+    private void put(Ranked ranked) {
+        scores.put(ranked.articleId(), ranked);
+        ranking.add(ranked);
+    }
+
+    private double keyAt(LocalDateTime time) {
+        return lambda * Duration.between(EPOCH, time).toSeconds();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.startup;
+
+import com.example.demo.payload.request.ArticleRequest;
+import com.example.demo.payload.response.ArticleResponse;
+import com.example.demo.security.jwt.JwtUtils;
+import com.example.demo.security.service.UserDetailsImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sends the hot paths through the JIT before the instance takes traffic: feed pages over loopback HTTP (filters,
+// Hibernate, Jackson), JWT signing and parsing, and (de)serialization of article payloads. It runs in an
+// ApplicationReadyEvent listener, and Spring only reports the readiness state as ACCEPTING_TRAFFIC once all of
+// those have returned, so /actuator/health/readiness stays down until the warm-up is over.
+@Component
+public class StartupWarmup {
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+
+    @Value("${app.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.warmup.iterations:200}")
+    private int iterations;
+
+    // Readiness is not held back longer than this, however far the warm-up got
+    @Value("${app.warmup.max-duration-ms:20000}")
+    private long maxDurationMs;
+
+    @Value("${app.feed.enabled:true}")
+    private boolean feedEnabled;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile int completedIterations;
+
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+        if (port == null) {
+            logger.info("Warm-up skipped, no web server is running");
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        long deadline = started + maxDurationMs;
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<HttpRequest> requests = requests("http://localhost:" + port);
+        UserDetailsImpl principal = new UserDetailsImpl(0L, "warmup", "warmup@localhost", "", true, List.of());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        List<ArticleResponse> responses = sampleResponses();
+
+        int iteration = 0;
+        try {
+            for (; iteration < iterations && System.currentTimeMillis() < deadline; iteration++) {
+                for (HttpRequest request : requests) {
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    if (iteration == 0 && response.statusCode() != 200) {
+                        logger.warn("Warm-up request {} returned {}", request.uri(), response.statusCode());
+                    }
+                }
+
+                String token = jwtUtils.generateJwtToken(authentication);
+                if (jwtUtils.validateJwtToken(token)) {
+                    jwtUtils.getUserNameFromJwtToken(token);
+                }
+
+                byte[] json = objectMapper.writeValueAsBytes(responses);
+                objectMapper.readTree(json);
+                objectMapper.readValue(objectMapper.writeValueAsBytes(responses.get(0)), ArticleRequest.class);
+                completedIterations = iteration + 1;
+            }
+        } catch (IOException e) {
+            logger.warn("Warm-up stopped after {} iterations: {}", iteration, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Warm-up ran {} iterations in {} ms", completedIterations, System.currentTimeMillis() - started);
+    }
+
+    public int getCompletedIterations() {
+        return completedIterations;
+    }
+
+    private List<HttpRequest> requests(String baseUrl) {
+        List<String> paths = new ArrayList<>(List.of(
+                "/api/articles?page=0&size=10",
+                "/api/articles?page=1&size=10&totals=false"));
+        if (feedEnabled) {
+            paths.add("/api/articles/feed?page=0&size=10");
+        }
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : paths) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Accept", "application/json")
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build());
+        }
+        return requests;
+    }
+
+    // Local data may be empty, so a page of responses is also serialized directly
+    private static List<ArticleResponse> sampleResponses() {
+        List<ArticleResponse> responses = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            ArticleResponse response = new ArticleResponse();
+            response.setId(id);
+            response.setTitle("Warm-up article " + id);
+            response.setDescription("A short description of warm-up article " + id);
+            response.setContent("Body of warm-up article " + id);
+            response.setSlug("warm-up-article-" + id);
+            response.setAuthorUsername("warmup");
+            response.setAuthorId(0L);
+            response.setCreatedAt(LocalDateTime.now());
+            responses.add(response);
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,36 @@
+-- Runs on every start after Hibernate has updated the schema (spring.jpa.defer-datasource-initialization).
+-- Every statement must be idempotent.
+
+-- Article bodies moved from articles.content to article_bodies, where ArticleBodyService copies them at startup.
+-- The column stays, so a build rolled back to still finds it; it only has to accept the rows this build writes
+-- without it. A later release drops it. The DO body is single quoted because the script is split on semicolons
+-- outside of quotes.
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''articles'' AND column_name = ''content'' AND is_nullable = ''NO'') THEN
+        ALTER TABLE articles ALTER COLUMN content DROP NOT NULL;
+    END IF;
+END';
+
+-- Bodies are compressed by the application; EXTERNAL keeps TOAST from compressing them again
+ALTER TABLE article_bodies ALTER COLUMN data SET STORAGE EXTERNAL;
+
+-- Full-text search over articles, maintained by ArticleService.saveArticle. The backfill covers rows
+-- written outside the application, whose bodies are still uncompressed at this point. Bodies still in the legacy
+-- articles.content column are not in article_bodies yet; ArticleBodyService recomputes those vectors when it
+-- copies them.
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS search_vector tsvector;
+CREATE INDEX IF NOT EXISTS idx_articles_search_vector ON articles USING GIN (search_vector);
+UPDATE articles a SET search_vector =
+        setweight(to_tsvector('english', coalesce(a.title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(a.description, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce((SELECT convert_from(b.data, 'UTF8') FROM article_bodies b
+                                                   WHERE b.article_id = a.id AND b.codec = 0), '')), 'C')
+    WHERE a.search_vector IS NULL;
+
+-- Latest articles per author, for the timeline's fan-out-on-read path and new-follower backfill
+CREATE INDEX IF NOT EXISTS idx_articles_author_created ON articles (user_id, created_at DESC, id DESC);
+
+-- Newest-first feed pages, for GET /api/articles and the database-rendered GET /api/articles/feed
+CREATE INDEX IF NOT EXISTS idx_articles_created ON articles (created_at DESC, id DESC);
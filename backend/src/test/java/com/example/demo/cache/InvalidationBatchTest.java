@@ -0,0 +1,73 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CacheInvalidationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvalidationBatchTest {
+
+    @Test
+    void deduplicatesBursts() {
+        InvalidationBatch batch = new InvalidationBatch();
+        batch.updated(1);
+        batch.updated(1);
+        batch.liked(1, 1);
+        batch.liked(1, 1);
+        batch.liked(2, 1);
+        batch.liked(2, -1);
+        // Created and deleted before anyone heard of it
+        batch.created(3, 7);
+        batch.updated(3);
+        batch.deleted(3, 7);
+        batch.liked(4, 1);
+        batch.deleted(4, 8);
+        batch.updated(4);
+        batch.registered(9);
+        batch.registered(9);
+
+        CacheInvalidationEvent event = batch.toEvent();
+        assertEquals(Map.of(), event.createdArticles());
+        assertEquals(Set.of(1L), event.updatedArticles());
+        assertEquals(Map.of(4L, 8L), event.deletedArticles());
+        assertEquals(Map.of(1L, 2), event.likeDeltas());
+        assertEquals(Set.of(9L), event.registeredUsers());
+        assertEquals(Set.of(8L, 9L), event.changedUserIds());
+    }
+
+    @Test
+    void roundTripsAndSplitsPayloads() {
+        InvalidationBatch batch = new InvalidationBatch();
+        for (long id = 1; id <= 200; id++) {
+            batch.created(id, 1000 + id);
+        }
+        batch.liked(5, -3);
+        batch.updated(500);
+        batch.registered(42);
+
+        List<String> payloads = batch.encode("0a1b2c3d", 100);
+        assertTrue(payloads.size() > 1);
+        InvalidationBatch decoded = new InvalidationBatch();
+        for (String payload : payloads) {
+            assertTrue(payload.length() <= 100);
+            InvalidationBatch.Decoded part = InvalidationBatch.decode(payload);
+            assertEquals("0a1b2c3d", part.node());
+            decoded.merge(part.batch());
+        }
+        assertEquals(batch.toEvent(), decoded.toEvent());
+    }
+
+    @Test
+    void skipsTokensItCannotRead() {
+        InvalidationBatch.Decoded decoded = InvalidationBatch.decode("node u7 x1 c8 l9:abc d10.3");
+
+        assertEquals(Set.of(7L), decoded.batch().toEvent().updatedArticles());
+        assertEquals(Map.of(10L, 3L), decoded.batch().toEvent().deletedArticles());
+        assertTrue(decoded.batch().toEvent().createdArticles().isEmpty());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.event.LikeToggledEvent;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = "app.invalidation.enabled=true")
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+class InvalidationBusPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @TestConfiguration
+    static class Received {
+        final BlockingQueue<CacheInvalidationEvent> events = new LinkedBlockingQueue<>();
+
+        @EventListener
+        public void onCacheInvalidation(CacheInvalidationEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private InvalidationBus bus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Received received;
+
+    @Test
+    void appliesNotificationsOfOtherNodesAndSkipsMalformedOnes() throws Exception {
+        // The listener connects in the background, so notify until it is listening
+        long deadline = System.currentTimeMillis() + 30_000;
+        CacheInvalidationEvent event = null;
+        while (event == null && System.currentTimeMillis() < deadline) {
+            sendNotification("");
+            sendNotification(bus.getNode() + " u1");
+            sendNotification("other u1001 u1002");
+            event = received.events.poll(500, TimeUnit.MILLISECONDS);
+        }
+        assertNotNull(event, "no invalidation received");
+        assertEquals(Set.of(1001L, 1002L), event.updatedArticles());
+
+        // Still listening after the malformed payloads
+        received.events.clear();
+        sendNotification("other u1003");
+        CacheInvalidationEvent next;
+        do {
+            next = received.events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(next, "listener stopped");
+        } while (!next.updatedArticles().contains(1003L));
+    }
+
+    @Test
+    void sendsLocalChangesToOtherNodes() throws Exception {
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword())) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN cache_invalidation");
+            }
+            for (int i = 0; i < 3; i++) {
+                bus.onLikeToggled(new LikeToggledEvent(2001L, 1L, 1L, true, LocalDateTime.now()));
+            }
+            bus.flush();
+
+            // The scheduled flush may have sent part of it already
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            InvalidationBatch sent = new InvalidationBatch();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (System.currentTimeMillis() < deadline) {
+                PGNotification[] notifications = pgConnection.getNotifications(500);
+                for (PGNotification notification : notifications != null ? notifications : new PGNotification[0]) {
+                    InvalidationBatch.Decoded decoded = InvalidationBatch.decode(notification.getParameter());
+                    if (bus.getNode().equals(decoded.node())) {
+                        sent.merge(decoded.batch());
+                    }
+                }
+                if (Map.of(2001L, 3).equals(sent.toEvent().likeDeltas())) {
+                    return;
+                }
+            }
+            fail("sent " + sent.toEvent().likeDeltas());
+        }
+    }
+
+    private void sendNotification(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify('cache_invalidation', ?)", payload);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CacheInvalidationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGNotification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvalidationBusTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InvalidationBus bus = new InvalidationBus(true, 500, 30000, 30000, meterRegistry);
+    private final List<Object> published = new ArrayList<>();
+
+    @Test
+    void dropsMalformedNotificationsAndAppliesTheRest() {
+        ReflectionTestUtils.setField(bus, "eventPublisher", (ApplicationEventPublisher) published::add);
+
+        bus.apply(new PGNotification[]{
+                notification("other u7"),
+                notification(""),
+                notification(" u8"),
+                notification(null),
+                notification(bus.getNode() + " u9"),
+                notification("other u10")});
+
+        assertEquals(1, published.size());
+        assertEquals(Set.of(7L, 10L), ((CacheInvalidationEvent) published.get(0)).updatedArticles());
+        assertEquals(3, meterRegistry.counter("cache.invalidation.malformed").count());
+        assertEquals(2, meterRegistry.counter("cache.invalidation.notifications", "direction", "received").count());
+    }
+
+    private static PGNotification notification(String payload) {
+        return new PGNotification() {
+            @Override
+            public String getName() {
+                return "cache_invalidation";
+            }
+
+            @Override
+            public int getPID() {
+                return 42;
+            }
+
+            @Override
+            public String getParameter() {
+                return payload;
+            }
+        };
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.demo.controller;
+
+import com.example.demo.event.ArticleDeletedEvent;
+import com.example.demo.event.ArticleSavedEvent;
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.model.Article;
+import com.example.demo.model.Like;
+import com.example.demo.model.User;
+import com.example.demo.monitoring.StatementBudgetFilter;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.AuthorStatsRepository;
+import com.example.demo.repository.FollowRepository;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.TimelineEntryRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.FollowService;
+import com.example.demo.service.RelatedArticleService;
+import com.example.demo.service.TagService;
+import com.example.demo.service.TrendingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pins the number of SQL statements each ArticleController endpoint executes.
+// When a change legitimately alters a count, update the expectation in the same commit.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArticleControllerStatementCountTest {
+
+    private static final int ARTICLES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RelatedArticleService relatedArticleService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private FollowService followService;
+
+    private Article first;
+
+    @BeforeEach
+    void seed() {
+        User alice = userRepository.save(newUser("alice"));
+        User bob = userRepository.save(newUser("bob"));
+
+        for (int i = 0; i < ARTICLES; i++) {
+            Article article = new Article();
+            article.setTitle("Title " + i);
+            article.setDescription("Description " + i);
+            article.setContent("Content " + i);
+            article.setSlug("slug-" + i);
+            article.setAuthor(alice);
+            article.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            article = articleRepository.save(article);
+            if (i == 0) {
+                first = article;
+            }
+
+            Like like = new Like();
+            like.setArticle(article);
+            like.setUser(bob);
+            likeRepository.save(like);
+        }
+        authorStatsRepository.insertMissing(LocalDateTime.now().minusDays(30), LocalDateTime.now());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        authorStatsRepository.deleteAll();
+        timelineEntryRepository.deleteAll();
+        followRepository.deleteAll();
+        likeRepository.deleteAll();
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getAllArticlesAnonymous() throws Exception {
+        assertStatements(get("/api/articles"), 4);
+    }
+
+    @Test
+    void getFullPageWithoutCountQuery() throws Exception {
+        // A full page used to need SELECT COUNT(*); the total is the cached article count
+        assertStatements(get("/api/articles").param("size", "2"), 4);
+        assertStatements(get("/api/articles/user/{username}", "alice").param("size", "2"), 5);
+
+        // The seeded articles bypassed the counter, so the total is corrected from the slice's next page
+        mockMvc.perform(get("/api/articles").param("size", "2"))
+                .andExpect(jsonPath("$.totalElements").value(3));
+        mockMvc.perform(get("/api/articles").param("size", "2").param("totals", "false"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.last").value(false));
+    }
+
+    @Test
+    void getAllArticlesAuthenticated() throws Exception {
+        assertStatements(get("/api/articles").with(user("bob")), 5);
+    }
+
+    @Test
+    void getArticleBySlug() throws Exception {
+        assertStatements(get("/api/articles/slug/{slug}", first.getSlug()).with(user("bob")), 8);
+    }
+
+    @Test
+    void getArticleById() throws Exception {
+        assertStatements(get("/api/articles/{id}", first.getId()).with(user("bob")), 8);
+    }
+
+    @Test
+    void createArticle() throws Exception {
+        String body = """
+                {"title":"New","description":"New article","content":"Body","slug":"new-article"}
+                """;
+        assertStatements(post("/api/articles").with(user("alice"))
+                .contentType(MediaType.APPLICATION_JSON).content(body), 12);
+    }
+
+    @Test
+    void toggleLike() throws Exception {
+        assertStatements(post("/api/articles/{id}/likes", first.getId()).with(user("alice")), 10);
+    }
+
+    @Test
+    void getArticlesByUsername() throws Exception {
+        assertStatements(get("/api/articles/user/{username}", "alice").with(user("bob")), 6);
+    }
+
+    @Test
+    void getCurrentUserArticles() throws Exception {
+        assertStatements(get("/api/articles/user").with(user("alice")), 6);
+    }
+
+    @Test
+    void getArticlesBatch() throws Exception {
+        String ids = articleRepository.findAll().stream().map(article -> article.getId().toString())
+                .collect(Collectors.joining(","));
+        // Articles with their authors, then like counts, the caller's likes and view totals
+        assertStatements(get("/api/articles/batch").param("ids", ids), 3);
+        assertStatements(get("/api/articles/batch").param("ids", ids).with(user("bob")), 4);
+        assertStatements(get("/api/articles/batch").param("slugs", "slug-0,slug-1,slug-2").with(user("bob")), 4);
+    }
+
+    @Test
+    void getArticlesBatchKeepsRequestOrder() throws Exception {
+        mockMvc.perform(get("/api/articles/batch").param("ids", "-1," + first.getId() + ",-2," + first.getId())
+                        .with(user("bob")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.articles.length()").value(1))
+                .andExpect(jsonPath("$.articles[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.articles[0].likeCount").value(1))
+                .andExpect(jsonPath("$.articles[0].hashLiked").value(true))
+                .andExpect(jsonPath("$.missing").value(contains(-1, -2)));
+        mockMvc.perform(get("/api/articles/batch").param("slugs", "slug-2,nope,slug-0"))
+                .andExpect(jsonPath("$.articles[0].slug").value("slug-2"))
+                .andExpect(jsonPath("$.articles[1].slug").value("slug-0"))
+                .andExpect(jsonPath("$.missing[0]").value("nope"));
+
+        String tooMany = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/articles/batch").param("ids", tooMany))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/articles/batch"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getArticlesWithSparseFields() throws Exception {
+        // No like counts, like status or author lookups when only title and slug are requested
+        assertStatements(get("/api/articles").param("fields", "title,slug").with(user("bob")), 1);
+        assertStatements(get("/api/articles/{id}", first.getId()).param("fields", "title").with(user("bob")), 1);
+        assertStatements(get("/api/articles/batch").param("ids", first.getId().toString())
+                .param("fields", "title").with(user("bob")), 1);
+
+        mockMvc.perform(get("/api/articles/{id}", first.getId()).param("fields", "title, likeCount"))
+                .andExpect(jsonPath("$.id").value(first.getId()))
+                .andExpect(jsonPath("$.title").value("Title 0"))
+                .andExpect(jsonPath("$.likeCount").value(1))
+                .andExpect(jsonPath("$.content").doesNotExist())
+                .andExpect(jsonPath("$.authorUsername").doesNotExist());
+        mockMvc.perform(get("/api/articles").param("fields", "slug"))
+                .andExpect(jsonPath("$.content[0].slug").value("slug-0"))
+                .andExpect(jsonPath("$.content[0].title").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(3));
+        mockMvc.perform(get("/api/articles").param("fields", "title,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("password")));
+    }
+
+    @Test
+    void suggest() throws Exception {
+        assertStatements(get("/api/articles/suggest").param("prefix", "tit"), 0);
+    }
+
+    @Test
+    void getTrendingArticles() throws Exception {
+        trendingService.onLikeToggled(new LikeToggledEvent(first.getId(), 1L, 1L, true, LocalDateTime.now()));
+        assertStatements(get("/api/articles/trending"), 3);
+        assertStatements(get("/api/articles/trending").with(user("bob")), 4);
+        trendingService.onArticleDeleted(new ArticleDeletedEvent(first));
+    }
+
+    @Test
+    void getRelatedArticles() throws Exception {
+        relatedArticleService.recompute();
+        // Both other articles were liked by bob too
+        assertStatements(get("/api/articles/{id}/related", first.getId()), 3);
+        assertStatements(get("/api/articles/{id}/related", first.getId()).with(user("bob")), 4);
+        mockMvc.perform(get("/api/articles/{id}/related", first.getId()).with(user("bob")))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].likeCount").value(1))
+                .andExpect(jsonPath("$[0].hashLiked").value(true));
+    }
+
+    @Test
+    void getTimeline() throws Exception {
+        // Following backfills alice's articles into bob's timeline
+        followService.follow("bob", "alice");
+        // The caller and its roles, the entries, the pulled authors, then the batched conversion
+        assertStatements(get("/api/articles/timeline").with(user("bob")), 8);
+        mockMvc.perform(get("/api/articles/timeline").with(user("bob")))
+                .andExpect(jsonPath("$.articles.length()").value(ARTICLES))
+                .andExpect(jsonPath("$.articles[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.articles[0].hashLiked").value(true));
+    }
+
+    @Test
+    void getArticlesByTag() throws Exception {
+        first.setTags(List.of("java"));
+        tagService.onArticleSaved(new ArticleSavedEvent(first, true));
+        assertStatements(get("/api/articles").param("tags", "Java"), 3);
+        assertStatements(get("/api/articles").param("tags", "Java").with(user("bob")), 4);
+        tagService.onArticleDeleted(new ArticleDeletedEvent(first));
+    }
+
+    private void assertStatements(RequestBuilder request, int expected) throws Exception {
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().string(StatementBudgetFilter.HEADER, String.valueOf(expected)));
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BinaryEncodingTest {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void seed() {
+        User alice = new User();
+        alice.setUsername("alice");
+        alice.setEmail("alice@example.com");
+        alice.setPassword(passwordEncoder.encode("password"));
+        alice.setEnabled(true);
+        userRepository.save(alice);
+
+        Article article = new Article();
+        article.setTitle("Binary post");
+        article.setDescription("Description");
+        article.setSlug("binary-post");
+        article.setAuthor(alice);
+        articleRepository.save(article);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void negotiatesFeedPageEncoding() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/articles"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/articles").accept(SMILE).param("fields", "title"))
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode fromJson = objectMapper.readTree(json).get("content").get(0);
+        JsonNode fromCbor = new CBORMapper().readTree(cbor).get("content").get(0);
+        assertEquals(fromJson.get("slug").asText(), fromCbor.get("slug").asText());
+        assertEquals(fromJson.get("createdAt").asText(), fromCbor.get("createdAt").asText());
+        assertEquals(fromJson.get("likeCount").asLong(), fromCbor.get("likeCount").asLong());
+
+        // Sparse fieldsets apply to every encoding
+        JsonNode fromSmile = new SmileMapper().readTree(smile).get("content").get(0);
+        assertEquals("Binary post", fromSmile.get("title").asText());
+        assertFalse(fromSmile.has("slug"));
+    }
+
+    @Test
+    void signsInWithBinaryBodies() throws Exception {
+        byte[] request = new CBORMapper().writeValueAsBytes(Map.of("username", "alice", "password", "password"));
+
+        byte[] response = mockMvc.perform(post("/api/auth/signin")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(request)
+                        .accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode jwt = new SmileMapper().readTree(response);
+        assertEquals("alice", jwt.get("username").asText());
+        assertFalse(jwt.get("token").asText().isEmpty());
+    }
+}
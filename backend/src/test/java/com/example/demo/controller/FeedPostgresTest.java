@@ -0,0 +1,142 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.Like;
+import com.example.demo.model.User;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ArticleService;
+import com.example.demo.sketch.HyperLogLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /api/articles/feed is rendered by Postgres; its document has to match what GET /api/articles returns
+@SpringBootTest(properties = "app.feed.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+class FeedPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        User author = userRepository.save(newUser("author"));
+        User reader = userRepository.save(newUser("reader"));
+        String hash = "0123456789abcdef".repeat(4);
+
+        // Whole seconds, trailing zeros in the fraction and a full fraction, as both sides format them
+        Article thumbnailed = save(author, "thumbnailed", "http://localhost:8080/api/images/" + hash + ".png",
+                List.of("java", "spring"), LocalDateTime.of(2025, 3, 1, 10, 0, 0));
+        save(author, "external", "https://example.com/cat.png", List.of(),
+                LocalDateTime.of(2025, 3, 1, 9, 0, 0, 123_400_000));
+        save(author, "plain", null, List.of("java"), LocalDateTime.of(2025, 3, 1, 8, 0, 0, 123_456_000));
+
+        Like like = new Like();
+        like.setArticle(thumbnailed);
+        like.setUser(reader);
+        likeRepository.save(like);
+        jdbcTemplate.update("""
+                INSERT INTO article_views (article_id, view_count, unique_viewers, sketch, updated_at)
+                VALUES (?, 5, 3, ?, ?)
+                """, thumbnailed.getId(), new byte[HyperLogLog.REGISTERS], LocalDateTime.now());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE users, articles, article_bodies, article_views, likes CASCADE");
+    }
+
+    @Test
+    void feedMatchesTheArticleList() throws Exception {
+        for (int page = 0; page <= 2; page++) {
+            JsonNode feed = read("/api/articles/feed", page);
+            JsonNode list = read("/api/articles", page);
+
+            // The list page carries Spring Data's pageable and sort on top
+            for (Iterator<String> names = feed.fieldNames(); names.hasNext(); ) {
+                String name = names.next();
+                assertEquals(list.get(name), feed.get(name), "page " + page + ", " + name);
+            }
+            assertTrue(feed.has("totalPages") && feed.has("last") && feed.has("content"));
+        }
+    }
+
+    private JsonNode read(String path, int page) throws Exception {
+        String body = mockMvc.perform(get(path).param("page", String.valueOf(page)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private Article save(User author, String slug, String imageUrl, List<String> tags, LocalDateTime createdAt) {
+        Article article = new Article();
+        article.setSlug(slug);
+        article.setTitle("Title " + slug);
+        article.setDescription("Description " + slug);
+        article.setContent("Body " + slug);
+        article.setImageUrl(imageUrl);
+        article.setTags(tags);
+        article.setCreatedAt(createdAt);
+        article.setAuthor(author);
+        return articleService.saveArticle(article);
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ImageControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void storesUnderContentHashAndServesThumbnail() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "cover.png", "image/png", png(1200, 900));
+
+        String body = mockMvc.perform(multipart("/api/images").file(file).with(user("alice")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode uploaded = objectMapper.readTree(body);
+        String thumbnail = URI.create(uploaded.get("thumbnailUrl").asText()).getPath();
+
+        // The same bytes map to the same name
+        String again = mockMvc.perform(multipart("/api/images").file(file).with(user("alice")))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(uploaded.get("url").asText(), objectMapper.readTree(again).get("url").asText());
+
+        byte[] jpeg = mockMvc.perform(get(thumbnail))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/jpeg"))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andReturn().getResponse().getContentAsByteArray();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertEquals(480, image.getWidth());
+        assertEquals(270, image.getHeight());
+
+        String etag = mockMvc.perform(get(thumbnail)).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(thumbnail).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void rejectsNonImagesAndUnknownNames() throws Exception {
+        MockMultipartFile text = new MockMultipartFile("file", "notes.png", "image/png", "not an image".getBytes());
+        mockMvc.perform(multipart("/api/images").file(text).with(user("alice")))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/images/{name}", "application.yml"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/images/{name}", "0".repeat(64) + ".png"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(30, 120, 200));
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.controller;
+
+import com.example.demo.event.CacheInvalidationEvent;
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ArticleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two ids per sitemap file, so a handful of articles already needs a sitemap index
+@SpringBootTest(properties = {"app.syndication.sitemap-shard-size=2", "app.syndication.feed-size=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SyndicationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void seed() {
+        User alice = new User();
+        alice.setUsername("alice");
+        alice.setEmail("alice@example.com");
+        alice.setPassword("password");
+        alice.setEnabled(true);
+        userRepository.save(alice);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        articleRepository.findAll().forEach(article -> delete(article.getId()));
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shardsSitemapAndKeepsFeedsCurrent() throws Exception {
+        long first = publish("first-post");
+        publish("second-post");
+        long third = publish("third-post");
+
+        String index = fetch("/sitemap.xml");
+        assertTrue(index.contains("<sitemapindex"));
+        assertTrue(index.contains("/sitemap-" + third / 2 + ".xml"));
+        assertTrue(fetch("/sitemap-" + third / 2 + ".xml").contains("http://localhost:3000/alice/third-post"));
+
+        String rss = fetch("/rss.xml");
+        assertTrue(rss.indexOf("third-post") < rss.indexOf("second-post"));
+        assertFalse(rss.contains("first-post"));
+
+        delete(third);
+        // The oldest article moves back into the feed once the newest is gone
+        String atom = fetch("/atom.xml");
+        assertFalse(atom.contains("third-post"));
+        assertTrue(atom.contains("http://localhost:3000/alice/first-post"));
+        assertTrue(fetch("/sitemap-" + first / 2 + ".xml").contains("first-post"));
+        mockMvc.perform(get("/sitemap-{number}.xml", 1000)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void servesPrecompressedBodiesWithEtags() throws Exception {
+        publish("compressed-post");
+
+        byte[] gzipped = mockMvc.perform(get("/rss.xml").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(fetch("/rss.xml"), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        String etag = mockMvc.perform(get("/rss.xml")).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/rss.xml").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        publish("newer-post");
+        mockMvc.perform(get("/rss.xml").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void appliesChangesFromOtherNodes() throws Exception {
+        // Written without local events, as another instance would
+        User alice = userRepository.findByUsername("alice").orElseThrow();
+        Article article = new Article();
+        article.setTitle("Remote post");
+        article.setDescription("Description");
+        article.setSlug("remote-post");
+        article.setAuthor(alice);
+        long id = articleRepository.save(article).getId();
+
+        eventPublisher.publishEvent(new CacheInvalidationEvent(Map.of(id, alice.getId()), Set.of(), Map.of(),
+                Map.of(), Set.of()));
+        assertTrue(fetch("/sitemap.xml").contains("/alice/remote-post"));
+        assertTrue(fetch("/rss.xml").contains("Remote post"));
+
+        articleRepository.deleteById(id);
+        eventPublisher.publishEvent(new CacheInvalidationEvent(Map.of(), Set.of(), Map.of(id, alice.getId()),
+                Map.of(), Set.of()));
+        assertFalse(fetch("/sitemap.xml").contains("remote-post"));
+        assertFalse(fetch("/atom.xml").contains("remote-post"));
+    }
+
+    private long publish(String slug) throws Exception {
+        String body = mockMvc.perform(post("/api/articles").with(user("alice"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"%s","description":"Description","content":"Body","slug":"%s"}
+                                """.formatted(slug, slug)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    // Deletion listeners read the author, so it runs in a session as it would in a request
+    private void delete(long id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> articleService.deleteArticle(id));
+    }
+
+    private String fetch(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+}
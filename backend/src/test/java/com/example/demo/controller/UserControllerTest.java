@@ -0,0 +1,112 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.AuthorStatsRepository;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    private Article article;
+
+    @BeforeEach
+    void seed() {
+        User alice = userRepository.save(newUser("alice"));
+        userRepository.save(newUser("bob"));
+
+        article = new Article();
+        article.setTitle("Title");
+        article.setDescription("Description");
+        article.setContent("Content");
+        article.setSlug("slug");
+        article.setAuthor(alice);
+        article = articleRepository.save(article);
+
+        authorStatsRepository.insertMissing(LocalDateTime.now().minusDays(30), LocalDateTime.now());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        authorStatsRepository.deleteAll();
+        likeRepository.deleteAll();
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void statsFollowArticlesAndLikes() throws Exception {
+        mockMvc.perform(post("/api/articles/{id}/likes", article.getId()).with(user("bob")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/articles").with(user("alice"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"Second","description":"Second article","content":"Body","slug":"second"}
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/{username}/stats", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalArticles").value(2))
+                .andExpect(jsonPath("$.totalLikes").value(1))
+                .andExpect(jsonPath("$.likesLast30Days").value(1));
+
+        mockMvc.perform(post("/api/articles/{id}/likes", article.getId()).with(user("bob")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/{username}/stats", "alice"))
+                .andExpect(jsonPath("$.totalLikes").value(0))
+                .andExpect(jsonPath("$.likesLast30Days").value(0));
+    }
+
+    @Test
+    void unknownUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/{username}/stats", "nobody"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setEnabled(true);
+        return user;
+    }
+}
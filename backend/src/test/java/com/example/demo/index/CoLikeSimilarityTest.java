@@ -0,0 +1,59 @@
+package com.example.demo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CoLikeSimilarityTest {
+
+    @Test
+    void ranksArticlesLikedByTheSameUsers() {
+        CoLikeSimilarity.Builder builder = new CoLikeSimilarity.Builder(100);
+        // Users 1-3 like articles 10 and 20; user 3 also likes 30, user 4 likes 30 and 40
+        like(builder, 1, 10, 20);
+        like(builder, 2, 10, 20);
+        like(builder, 3, 10, 20, 30);
+        like(builder, 4, 30, 40);
+
+        CoLikeSimilarity.Neighbors neighbors = builder.build().topNeighbors(2, new ForkJoinPool(2));
+
+        assertArrayEquals(new long[]{20, 30}, neighbors.get(10));
+        assertArrayEquals(new long[]{40, 10}, neighbors.get(30));
+        assertArrayEquals(new long[]{30}, neighbors.get(40));
+        assertArrayEquals(new long[0], neighbors.get(99));
+    }
+
+    @Test
+    void skipsUsersAboveTheLikeCap() {
+        CoLikeSimilarity.Builder builder = new CoLikeSimilarity.Builder(2);
+        like(builder, 1, 10, 20, 30);
+        like(builder, 2, 20, 30);
+
+        CoLikeSimilarity.Neighbors neighbors = builder.build().topNeighbors(5, new ForkJoinPool(1));
+
+        assertArrayEquals(new long[0], neighbors.get(10));
+        assertArrayEquals(new long[]{30}, neighbors.get(20));
+    }
+
+    @Test
+    void splitsWorkAcrossTasks() {
+        // Enough articles for several fork/join leaves: user u likes articles u and u + 1
+        CoLikeSimilarity.Builder builder = new CoLikeSimilarity.Builder(10);
+        for (int user = 0; user < 2_000; user++) {
+            like(builder, user, user, user + 1);
+        }
+
+        CoLikeSimilarity.Neighbors neighbors = builder.build().topNeighbors(2, new ForkJoinPool(4));
+
+        assertArrayEquals(new long[]{1000, 1002}, neighbors.get(1001));
+        assertArrayEquals(new long[]{1}, neighbors.get(0));
+    }
+
+    private static void like(CoLikeSimilarity.Builder builder, long userId, long... articleIds) {
+        for (long articleId : articleIds) {
+            builder.add(userId, articleId);
+        }
+    }
+}
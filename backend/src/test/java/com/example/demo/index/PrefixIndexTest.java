@@ -0,0 +1,121 @@
+package com.example.demo.index;
+
+import com.example.demo.index.PrefixIndex.Entry;
+import com.example.demo.index.PrefixIndex.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    @Test
+    void returnsHighestWeightedMatchesFirst() {
+        PrefixIndex index = new PrefixIndex(3);
+        put(index, 1, "Java streams explained", 5);
+        put(index, 2, "JavaScript promises", 50);
+        put(index, 3, "Jakarta EE basics", 1);
+        put(index, 4, "Python tips", 100);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(index.search("ja", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("java", 10)));
+        assertEquals(List.of(2L), ids(index.search("java", 1)));
+    }
+
+    @Test
+    void matchesAnyWordAndThePhrase() {
+        PrefixIndex index = new PrefixIndex(5);
+        put(index, 1, "Tuning Spring Boot startup", 1);
+
+        assertEquals(List.of(1L), ids(index.search("boo", 5)));
+        assertEquals(List.of(1L), ids(index.search("tuning spr", 5)));
+        assertTrue(index.search("spring tuning", 5).isEmpty());
+        // Past the first two words the phrase node's entries are checked against the title
+        assertEquals(List.of(1L), ids(index.search("tuning spring boot st", 5)));
+        assertTrue(index.search("tuning spring boat", 5).isEmpty());
+    }
+
+    @Test
+    void matchesLongerQueriesInsideTheTitle() {
+        PrefixIndex index = new PrefixIndex(5);
+        put(index, 1, "Spring Boot Tips for Beginners", 1);
+        put(index, 2, "Boot camp notes", 3);
+        put(index, 3, "Reboot tips for teams", 2);
+
+        assertEquals(List.of(1L), ids(index.search("boot tips for", 5)));
+        assertEquals(List.of(1L), ids(index.search("boot tips", 5)));
+        assertEquals(List.of(1L), ids(index.search("tips for beg", 5)));
+        assertTrue(index.search("oot tips for", 5).isEmpty());
+        assertTrue(index.search("tips boot", 5).isEmpty());
+    }
+
+    @Test
+    void addWeightReorders() {
+        PrefixIndex index = new PrefixIndex(5);
+        put(index, 1, "Kotlin coroutines", 2);
+        put(index, 2, "Kotlin flows", 1);
+
+        assertTrue(index.addWeight(Type.ARTICLE, 2, 2));
+        assertEquals(List.of(2L, 1L), ids(index.search("kotlin", 5)));
+        assertEquals(List.of(2L), ids(index.search("kotlin fl", 5)));
+        assertFalse(index.addWeight(Type.ARTICLE, 3, 1));
+    }
+
+    @Test
+    void normalizesCaseAndDiacritics() {
+        PrefixIndex index = new PrefixIndex(5);
+        put(index, 1, "Crème Brûlée at home", 1);
+
+        assertEquals(List.of(1L), ids(index.search("CREME", 5)));
+        assertEquals(List.of(1L), ids(index.search("brul", 5)));
+    }
+
+    @Test
+    void removalRefillsTopFromRemainingEntries() {
+        PrefixIndex index = new PrefixIndex(2);
+        put(index, 1, "alpha", 30);
+        put(index, 2, "alpine", 20);
+        put(index, 3, "altitude", 10);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("al", 5)));
+        index.remove(Type.ARTICLE, 1);
+        assertEquals(List.of(2L, 3L), ids(index.search("al", 5)));
+        index.remove(Type.ARTICLE, 2);
+        index.remove(Type.ARTICLE, 3);
+        assertTrue(index.search("a", 5).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void putReplacesExistingEntry() {
+        PrefixIndex index = new PrefixIndex(5);
+        put(index, 1, "Old title", 1);
+        put(index, 1, "New title", 1);
+
+        assertTrue(index.search("old", 5).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("new", 5)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void articlesAndUsersWithSameIdAreDistinct() {
+        PrefixIndex index = new PrefixIndex(5);
+        put(index, 7, "Sam's story", 1);
+        index.put(new Entry(Type.USER, 7, "sam", null, null, 2), PrefixIndex.tokens("sam"));
+
+        List<Entry> results = index.search("sam", 5);
+        assertEquals(2, results.size());
+        assertEquals(Type.USER, results.get(0).type());
+    }
+
+    private static void put(PrefixIndex index, long id, String title, long weight) {
+        index.put(new Entry(Type.ARTICLE, id, title, "slug-" + id, "author", weight), PrefixIndex.tokens(title));
+    }
+
+    private static List<Long> ids(List<Entry> entries) {
+        return entries.stream().map(Entry::id).toList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagIndexTest {
+
+    @Test
+    void normalizesTags() {
+        assertEquals(List.of("spring-boot", "creme", "c#"),
+                TagIndex.normalize(List.of(" Spring Boot ", "Crème", "spring_boot", "C#", "", "x".repeat(40))));
+    }
+
+    @Test
+    void intersectsAndUnionsNewestFirst() {
+        TagIndex index = new TagIndex();
+        index.load(List.of(
+                Map.entry(10L, List.of("java", "spring")),
+                Map.entry(20L, List.of("java")),
+                Map.entry(30L, List.of("spring")),
+                Map.entry(40L, List.of("java", "spring"))).iterator());
+
+        assertEquals(new TagIndex.Result(List.of(40L, 10L), 2), index.find(List.of("java", "spring"), true, 0, 10));
+        assertEquals(new TagIndex.Result(List.of(40L, 30L, 20L, 10L), 4), index.find(List.of("java", "spring"), false, 0, 10));
+        assertEquals(new TagIndex.Result(List.of(20L), 3), index.find(List.of("java"), true, 1, 1));
+        assertEquals(0, index.find(List.of("java", "go"), true, 0, 10).total());
+    }
+
+    @Test
+    void appendsRetagsAndRemoves() {
+        TagIndex index = new TagIndex();
+        index.put(1L, List.of("java"));
+        index.put(2L, List.of("java"));
+        TagIndex.Result before = index.find(List.of("java"), true, 0, 10);
+
+        index.put(1L, List.of("go"));
+        index.remove(2L);
+        index.put(3L, List.of("java"));
+
+        assertEquals(List.of(2L, 1L), before.articleIds());
+        assertEquals(List.of(3L), index.find(List.of("java"), true, 0, 10).articleIds());
+        assertEquals(List.of(1L), index.find(List.of("go"), true, 0, 10).articleIds());
+        assertTrue(index.find(List.of("rust"), false, 0, 10).articleIds().isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    @Test
+    void reusesValidIdsAndReplacesOthers() throws Exception {
+        assertEquals("edge-1234", run("edge-1234"));
+
+        String generated = run("not valid\r\nInjected: header");
+        assertNotEquals("not valid\r\nInjected: header", generated);
+        assertEquals(16, generated.length());
+        assertNotNull(run(null));
+        assertNull(MDC.get(RequestIdFilter.MDC_KEY));
+    }
+
+    // Returns the id seen in the MDC during the request, after checking it was echoed back
+    private String run(String incoming) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+        if (incoming != null) {
+            request.addHeader(RequestIdFilter.HEADER, incoming);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(MDC.get(RequestIdFilter.MDC_KEY));
+            }
+        });
+        assertEquals(seen.get(), response.getHeader(RequestIdFilter.HEADER));
+        return seen.get();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SamplingTurboFilterTest {
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> events;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        events = new ListAppender<>();
+        events.setContext(context);
+        events.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(events);
+
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggers("com.example.demo.security.jwt, com.example.demo.monitoring");
+        filter.setBurst(3);
+        filter.setPermitsPerSecond(0.001);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    @Test
+    void capsEachMessageTemplateOfSampledLoggers() {
+        Logger jwt = context.getLogger("com.example.demo.security.jwt.JwtUtils");
+        for (int i = 0; i < 10; i++) {
+            jwt.error("Invalid JWT token: {}", "token " + i);
+        }
+        jwt.error("JWT token is expired: {}", "token");
+
+        assertEquals(4, events.list.size());
+        assertEquals(7, filter.getDropped());
+    }
+
+    @Test
+    void leavesOtherLoggersAndDisabledLevelsAlone() {
+        Logger service = context.getLogger("com.example.demo.service.ArticleService");
+        Logger monitoring = context.getLogger("com.example.demo.monitoring.StatementBudgetFilter");
+        for (int i = 0; i < 10; i++) {
+            service.info("Saved article {}", i);
+            // DEBUG is below the configured level and must not use up permits
+            monitoring.debug("Counted {} statements", i);
+        }
+        monitoring.warn("GET /api/articles executed {} SQL statements (budget {})", 30, 20);
+
+        assertEquals(11, events.list.size());
+        assertEquals(0, filter.getDropped());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.monitoring;
+
+import com.example.demo.exception.StatementBudgetExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementBudgetFilterTest {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+    private final StatementBudgetProperties properties = new StatementBudgetProperties();
+    private final StatementBudgetFilter filter = new StatementBudgetFilter();
+
+    @BeforeEach
+    void setUp() {
+        properties.setDefaultBudget(2);
+        properties.setFailOnExceed(true);
+        ReflectionTestUtils.setField(filter, "statementCounter", statementCounter);
+        ReflectionTestUtils.setField(filter, "properties", properties);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void holdsBackTheBodyOfOverBudgetRequests() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(StatementBudgetExceededException.class,
+                () -> run(response, MediaType.APPLICATION_JSON_VALUE, 3));
+        assertFalse(response.isCommitted());
+        assertEquals("", response.getContentAsString());
+    }
+
+    @Test
+    void passesBodiesWithinBudgetThrough() throws Exception {
+        properties.setExposeHeader(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(response, MediaType.APPLICATION_JSON_VALUE, 2);
+        assertEquals("body", response.getContentAsString());
+        assertEquals("2", response.getHeader(StatementBudgetFilter.HEADER));
+    }
+
+    @Test
+    void streamsEventStreamsUnbufferedAndOnlyLogsThem() throws Exception {
+        properties.setExposeHeader(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        run(response, MediaType.TEXT_EVENT_STREAM_VALUE, 3);
+        assertTrue(response.isCommitted());
+        assertEquals("body", response.getContentAsString());
+        assertNull(response.getHeader(StatementBudgetFilter.HEADER));
+    }
+
+    private void run(MockHttpServletResponse response, String contentType, int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/articles");
+                for (int i = 0; i < statements; i++) {
+                    statementCounter.inspect("select 1");
+                }
+                HttpServletResponse http = (HttpServletResponse) res;
+                http.setContentType(contentType);
+                http.getOutputStream().write("body".getBytes());
+                http.flushBuffer();
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.ratelimit;
+
+import com.example.demo.security.jwt.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsWithRetryAfterBeforeTheChainRuns() throws Exception {
+        RateLimitFilter filter = filter();
+
+        MockFilterChain allowed = new MockFilterChain();
+        filter.doFilter(signin("10.0.0.1"), new MockHttpServletResponse(), allowed);
+        assertNotNull(allowed.getRequest());
+
+        MockFilterChain blocked = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(signin("10.0.0.1"), response, blocked);
+
+        assertNull(blocked.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("10", response.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.counter("http.server.requests.rate.limited", "rule", "signin").count());
+
+        // Another client and other endpoints are unaffected
+        MockFilterChain otherClient = new MockFilterChain();
+        filter.doFilter(signin("10.0.0.2"), new MockHttpServletResponse(), otherClient);
+        assertNotNull(otherClient.getRequest());
+
+        MockFilterChain otherPath = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/articles"), new MockHttpServletResponse(), otherPath);
+        assertNotNull(otherPath.getRequest());
+    }
+
+    private RateLimitFilter filter() {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setMethod("POST");
+        rule.setPath("/api/auth/signin");
+        rule.setBurst(1);
+        rule.setPermitsPerSecond(0.1);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getRules().put("signin", rule);
+
+        RateLimitFilter filter = new RateLimitFilter(properties, meterRegistry);
+        ReflectionTestUtils.setField(filter, "jwtUtils", new JwtUtils());
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        return filter;
+    }
+
+    private static MockHttpServletRequest signin(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/signin");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        RateLimiter limiter = new RateLimiter(3, 1, 100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        assertEquals(SECOND, limiter.tryAcquire("a"));
+        // Other keys have their own bucket
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(SECOND, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void evictsOnlyRefilledKeys() {
+        RateLimiter limiter = new RateLimiter(2, 1, 100, clock::get);
+        limiter.tryAcquire("idle");
+        clock.addAndGet(2 * SECOND);
+        limiter.tryAcquire("busy");
+        limiter.tryAcquire("busy");
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void admitsNewKeysWhenFull() {
+        RateLimiter limiter = new RateLimiter(1, 1, 4, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // Tracked keys are all throttled, yet a flood of new keys is served and the table stays bounded
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(0, limiter.tryAcquire("new-" + i));
+            assertTrue(limiter.size() <= 4);
+        }
+    }
+
+    @Test
+    void keepsRecentKeysWhenMakingRoom() {
+        RateLimiter limiter = new RateLimiter(1, 1, 4, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+
+        // "a" moved to the older generation when "c" arrived, and comes back still throttled
+        assertTrue(limiter.tryAcquire("a") > 0);
+        limiter.tryAcquire("d");
+        limiter.tryAcquire("e");
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        // Keys not seen for two generations are dropped
+        limiter.tryAcquire("f");
+        limiter.tryAcquire("g");
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ArticleBody;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArticleBodyServiceTest {
+
+    private final ArticleBodyService service = new ArticleBodyService(64);
+
+    @Test
+    void storesShortBodiesAsIs() {
+        ArticleBody body = encode("Short body, ünïcode");
+
+        assertEquals(ArticleBody.RAW, body.getCodec());
+        assertEquals("Short body, ünïcode", ArticleBodyService.decode(body));
+    }
+
+    @Test
+    void compressesLongBodies() {
+        String content = "Compression pays off on repetitive prose. ".repeat(200) + "Ünïcode at the end.";
+        ArticleBody body = encode(content);
+
+        assertEquals(ArticleBody.LZ4, body.getCodec());
+        assertEquals(content.getBytes(StandardCharsets.UTF_8).length, body.getRawLength());
+        assertTrue(body.getData().length < body.getRawLength() / 4);
+        assertEquals(content, ArticleBodyService.decode(body));
+    }
+
+    private ArticleBody encode(String content) {
+        ArticleBody body = new ArticleBody();
+        service.encode(body, content);
+        return body;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.monitoring.StatementCounter;
+import com.example.demo.payload.response.ArticleSearchResult;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.search.enabled=true")
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+class ArticleSearchPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        User author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setPassword("password");
+        author.setEnabled(true);
+        author = userRepository.save(author);
+
+        // The same word in the title, the description and the body, weighted A, B and C
+        save(author, "body", "Weekend notes", "Things I read", "Why postgres plans a sequential scan");
+        save(author, "title", "Tuning postgres", "Things I changed", "Shared buffers and work memory");
+        save(author, "description", "Slow queries", "What postgres does with a missing index", "Explain first");
+        save(author, "unrelated", "Gardening", "Tomatoes", "Water in the morning");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE users, articles CASCADE");
+    }
+
+    @Test
+    void ranksTitleOverDescriptionOverBody() {
+        Page<ArticleSearchResult> page = search("postgres", 0, 10);
+
+        assertEquals(List.of("title", "description", "body"), slugs(page));
+        assertEquals(3, page.getTotalElements());
+        assertTrue(page.getContent().get(1).getSnippet().contains("<mark>postgres</mark>"));
+        assertEquals("author", page.getContent().get(0).getAuthorUsername());
+    }
+
+    @Test
+    void pagesKeepTheRankingAndTheTotal() {
+        Page<ArticleSearchResult> first = search("postgres", 0, 2);
+        Page<ArticleSearchResult> second = search("postgres", 1, 2);
+
+        assertEquals(List.of("title", "description"), slugs(first));
+        assertEquals(List.of("body"), slugs(second));
+        assertEquals(3, first.getTotalElements());
+        assertEquals(3, second.getTotalElements());
+        assertEquals(2, first.getTotalPages());
+    }
+
+    @Test
+    void shortFirstPageSkipsTheCount() {
+        statementCounter.begin();
+        Page<ArticleSearchResult> shortPage = search("postgres", 0, 10);
+        assertEquals(1, statementCounter.end());
+        assertEquals(3, shortPage.getTotalElements());
+
+        statementCounter.begin();
+        search("postgres", 0, 3);
+        assertEquals(2, statementCounter.end());
+
+        statementCounter.begin();
+        Page<ArticleSearchResult> none = search("kubernetes", 0, 10);
+        assertEquals(1, statementCounter.end());
+        assertEquals(0, none.getTotalElements());
+    }
+
+    private Page<ArticleSearchResult> search(String query, int page, int size) {
+        return articleService.searchArticles(query, PageRequest.of(page, size));
+    }
+
+    private void save(User author, String slug, String title, String description, String content) {
+        Article article = new Article();
+        article.setSlug(slug);
+        article.setTitle(title);
+        article.setDescription(description);
+        article.setContent(content);
+        article.setAuthor(author);
+        articleService.saveArticle(article);
+    }
+
+    private static List<String> slugs(Page<ArticleSearchResult> page) {
+        return page.getContent().stream().map(ArticleSearchResult::getSlug).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.ArticleViewsRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ArticleViewServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleViewService articleViewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private ArticleViewsRepository articleViewsRepository;
+
+    private Article article;
+
+    @BeforeEach
+    void seed() {
+        User alice = new User();
+        alice.setUsername("alice");
+        alice.setEmail("alice@example.com");
+        alice.setPassword("password");
+        alice.setEnabled(true);
+        alice = userRepository.save(alice);
+
+        article = new Article();
+        article.setTitle("Title");
+        article.setDescription("Description");
+        article.setContent("Content");
+        article.setSlug("viewed");
+        article.setAuthor(alice);
+        article = articleRepository.save(article);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        articleViewsRepository.deleteAll();
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void countsViewsAndUniqueViewersAcrossFlushes() throws Exception {
+        mockMvc.perform(get("/api/articles/{id}", article.getId()).with(user("bob"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/{id}", article.getId()).with(user("bob"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/slug/{slug}", "viewed"))
+                .andExpect(jsonPath("$.viewCount").value(3))
+                .andExpect(jsonPath("$.uniqueViewers").value(2));
+
+        articleViewService.flush();
+        assertEquals(3, articleViewsRepository.findById(article.getId()).orElseThrow().getViewCount());
+
+        // Flushed totals and the sketch are merged with later views
+        mockMvc.perform(get("/api/articles/{id}", article.getId()).with(user("carol")))
+                .andExpect(jsonPath("$.viewCount").value(4));
+        mockMvc.perform(get("/api/articles/{id}", article.getId()).with(user("bob")))
+                .andExpect(jsonPath("$.viewCount").value(5));
+        articleViewService.flush();
+
+        mockMvc.perform(get("/api/articles")).andExpect(status().isOk());
+        var views = articleViewsRepository.findById(article.getId()).orElseThrow();
+        assertEquals(5, views.getViewCount());
+        assertEquals(3, views.getUniqueViewers());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.event.FollowToggledEvent;
+import com.example.demo.model.Article;
+import com.example.demo.model.AuthorStats;
+import com.example.demo.model.Like;
+import com.example.demo.model.User;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.AuthorStatsRepository;
+import com.example.demo.repository.LikeRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthorStatsServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private AuthorStatsService authorStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void seed() {
+        alice = userRepository.save(newUser("alice"));
+        bob = userRepository.save(newUser("bob"));
+
+        Article article = new Article();
+        article.setTitle("Title");
+        article.setDescription("Description");
+        article.setSlug("slug");
+        article.setAuthor(alice);
+        article = articleRepository.save(article);
+        for (User liker : new User[]{alice, bob}) {
+            Like like = new Like();
+            like.setArticle(article);
+            like.setUser(liker);
+            likeRepository.save(like);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        authorStatsRepository.deleteAll();
+        likeRepository.deleteAll();
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createsOnlyTheMissingRowOfTheAuthor() {
+        authorStatsService.onFollowToggled(new FollowToggledEvent(bob.getId(), alice.getId(), true));
+
+        AuthorStats stats = authorStatsRepository.findById(alice.getId()).orElseThrow();
+        assertEquals(1, stats.getArticleCount());
+        assertEquals(2, stats.getLikeCount());
+        assertFalse(authorStatsRepository.existsById(bob.getId()));
+    }
+
+    @Test
+    void refreshesOnlyAuthorsWithLikesLeavingTheWindow() {
+        LocalDateTime lastRefresh = LocalDateTime.now().minusDays(2);
+        authorStatsRepository.save(new AuthorStats(alice.getId(), 1, 2, 2, 0, lastRefresh));
+        // Off on purpose, to show that bob's row is not recounted
+        authorStatsRepository.save(new AuthorStats(bob.getId(), 0, 0, 5, 0, lastRefresh));
+        jdbcTemplate.update("UPDATE likes SET created_at = ? WHERE user_id = ?",
+                LocalDateTime.now().minusDays(31), bob.getId());
+
+        authorStatsService.refreshRecentLikes();
+
+        assertEquals(1, authorStatsRepository.findById(alice.getId()).orElseThrow().getRecentLikeCount());
+        assertEquals(5, authorStatsRepository.findById(bob.getId()).orElseThrow().getRecentLikeCount());
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.payload.response.ArticleSearchResult;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Starts from a database of the build before article_bodies, with bodies in articles.content
+@SpringBootTest(properties = "app.search.enabled=true")
+@ActiveProfiles({"test", "postgres"})
+@Testcontainers(disabledWithoutDocker = true)
+class LegacyBodyMigrationPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ArticleBodyService articleBodyService;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE users, articles, article_bodies CASCADE");
+    }
+
+    @Test
+    void legacyBodiesAreCopiedOnceAndSearchable() {
+        User author = new User();
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+        author.setPassword("password");
+        author.setEnabled(true);
+        author = userRepository.save(author);
+
+        jdbcTemplate.execute("ALTER TABLE articles ADD COLUMN IF NOT EXISTS content text");
+        Long id = jdbcTemplate.queryForObject("""
+                INSERT INTO articles (title, description, slug, content, created_at, user_id)
+                VALUES ('Weekend notes', 'Things I read', 'legacy', 'Why postgres plans a sequential scan', ?, ?)
+                RETURNING id
+                """, Long.class, LocalDateTime.now(), author.getId());
+
+        // A boot of the new build: the init script backfills the search vector, then the bodies are copied
+        new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql")).execute(dataSource);
+        assertEquals(1, articleBodyService.copyLegacyBodies());
+
+        assertEquals("Why postgres plans a sequential scan", articleBodyService.getContent(id).orElseThrow());
+        List<String> hits = articleService.searchArticles("sequential scan", PageRequest.of(0, 10)).getContent()
+                .stream().map(ArticleSearchResult::getSlug).toList();
+        assertEquals(List.of("legacy"), hits);
+
+        // The next boot finds nothing left to copy
+        assertEquals(0, articleBodyService.copyLegacyBodies());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import com.example.demo.event.LikeToggledEvent;
+import com.example.demo.repository.LikeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LikeStreamServiceTest {
+
+    private final AtomicLong likes = new AtomicLong(3);
+    private final List<Collection<Long>> countQueries = new ArrayList<>();
+    private boolean failCounts;
+
+    @Test
+    void coalescesTogglesIntoOneCountPerWindow() {
+        LikeStreamService service = service(10);
+        service.subscribe(Set.of(1L, 2L));
+
+        for (int i = 0; i < 50; i++) {
+            likes.incrementAndGet();
+            service.onLikeToggled(new LikeToggledEvent(1L, 9L, 2L, true, LocalDateTime.now()));
+        }
+        service.flush();
+        service.flush();
+
+        // One query for the initial snapshot and one for the whole burst
+        assertEquals(List.of(Set.of(1L, 2L), Set.of(1L)), countQueries);
+    }
+
+    @Test
+    void ignoresArticlesWithoutSubscribers() {
+        LikeStreamService service = service(10);
+        service.onLikeToggled(new LikeToggledEvent(7L, 9L, 2L, true, LocalDateTime.now()));
+        service.flush();
+
+        assertTrue(countQueries.isEmpty());
+    }
+
+    @Test
+    void rejectsSubscribersOverTheLimit() {
+        LikeStreamService service = service(1);
+        service.subscribe(Set.of(1L));
+
+        assertNull(service.subscribe(Set.of(2L)));
+    }
+
+    @Test
+    void releasesTheSlotWhenTheSnapshotFails() {
+        LikeStreamService service = service(1);
+        failCounts = true;
+        assertThrows(DataAccessResourceFailureException.class, () -> service.subscribe(Set.of(1L)));
+        failCounts = false;
+
+        service.onLikeToggled(new LikeToggledEvent(1L, 9L, 2L, true, LocalDateTime.now()));
+        service.flush();
+        assertTrue(countQueries.isEmpty());
+        assertNotNull(service.subscribe(Set.of(2L)));
+    }
+
+    private LikeStreamService service(int maxSubscribers) {
+        LikeStreamService service = new LikeStreamService(100, maxSubscribers, 60_000, 10_000);
+        ReflectionTestUtils.setField(service, "likeRepository", likeRepository());
+        return service;
+    }
+
+    private LikeRepository likeRepository() {
+        return (LikeRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{LikeRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("countByArticleIds")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if (failCounts) {
+                        throw new DataAccessResourceFailureException("connection lost");
+                    }
+                    @SuppressWarnings("unchecked")
+                    Collection<Long> ids = (Collection<Long>) args[0];
+                    countQueries.add(ids);
+                    return ids.stream().map(id -> (LikeRepository.ArticleLikeCount) new LikeRepository.ArticleLikeCount() {
+                        public Long getArticleId() {
+                            return id;
+                        }
+
+                        public long getLikeCount() {
+                            return likes.get();
+                        }
+                    }).toList();
+                });
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Article;
+import com.example.demo.model.User;
+import com.example.demo.repository.ArticleRepository;
+import com.example.demo.repository.AuthorStatsRepository;
+import com.example.demo.repository.FollowRepository;
+import com.example.demo.repository.TimelineEntryRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Authors with two or more followers are merged in on read
+@SpringBootTest(properties = "app.timeline.fan-out-threshold=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TimelineServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private AuthorStatsRepository authorStatsRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void seed() {
+        User alice = userRepository.save(newUser("alice"));
+        for (String username : List.of("bob", "carol", "dave")) {
+            userRepository.save(newUser(username));
+        }
+
+        Article old = new Article();
+        old.setTitle("Old");
+        old.setDescription("Old article");
+        old.setContent("Body");
+        old.setSlug("old");
+        old.setAuthor(alice);
+        old.setCreatedAt(LocalDateTime.now().minusDays(1));
+        articleRepository.save(old);
+
+        authorStatsRepository.insertMissing(LocalDateTime.now().minusDays(30), LocalDateTime.now());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        timelineEntryRepository.deleteAll();
+        followRepository.deleteAll();
+        authorStatsRepository.deleteAll();
+        articleRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void mergesFannedOutAndPulledAuthorsWithCursorPagination() throws Exception {
+        follow("bob", "alice");
+        follow("bob", "carol");
+        follow("dave", "carol");
+        publish("alice", "alice-new");
+        publish("carol", "carol-new");
+
+        // carol has two followers, so her article was not fanned out
+        assertEquals(2, timelineEntryRepository.count());
+        timelineService.trim();
+        assertEquals(2, timelineEntryRepository.count());
+
+        JsonNode first = timeline("bob", null, 2);
+        assertEquals(List.of("carol-new", "alice-new"), slugs(first));
+        assertTrue(first.hasNonNull("nextCursor"));
+
+        JsonNode second = timeline("bob", first.get("nextCursor").asText(), 2);
+        assertEquals(List.of("old"), slugs(second));
+        assertTrue(second.get("nextCursor").isNull());
+
+        mockMvc.perform(get("/api/users/{username}/stats", "carol"))
+                .andExpect(jsonPath("$.followers").value(2));
+
+        mockMvc.perform(delete("/api/users/{username}/follow", "alice").with(user("bob")))
+                .andExpect(status().isOk());
+        assertEquals(List.of("carol-new"), slugs(timeline("bob", null, 10)));
+    }
+
+    @Test
+    void rejectsSelfFollowAndBadCursors() throws Exception {
+        mockMvc.perform(post("/api/users/{username}/follow", "bob").with(user("bob")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/articles/timeline").param("cursor", "not-a-cursor").with(user("bob")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/articles/timeline"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void follow(String follower, String author) throws Exception {
+        mockMvc.perform(post("/api/users/{username}/follow", author).with(user(follower)))
+                .andExpect(status().isOk());
+    }
+
+    private void publish(String author, String slug) throws Exception {
+        mockMvc.perform(post("/api/articles").with(user(author))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title":"%s","description":"Description","content":"Body","slug":"%s"}
+                                """.formatted(slug, slug)))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode timeline(String username, String cursor, int size) throws Exception {
+        var request = get("/api/articles/timeline").param("size", String.valueOf(size)).with(user(username));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> slugs(JsonNode page) {
+        List<String> slugs = new ArrayList<>();
+        page.get("articles").forEach(article -> slugs.add(article.get("slug").asText()));
+        return slugs;
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.event.LikeToggledEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendingServiceTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void recentLikesOutweighOlderOnes() {
+        TrendingService trending = new TrendingService(24, 100, 0.05);
+        // Three likes two days ago are worth 0.75 today, one like an hour ago almost 1
+        for (int i = 0; i < 3; i++) {
+            like(trending, 1L, now.minusHours(48));
+        }
+        like(trending, 2L, now.minusHours(1));
+
+        assertEquals(List.of(2L, 1L), trending.topArticleIds(10));
+        assertEquals(0.75, trending.scoreOf(1L), 0.01);
+    }
+
+    @Test
+    void unlikeRemovesContribution() {
+        TrendingService trending = new TrendingService(24, 100, 0.05);
+        like(trending, 1L, now.minusHours(2));
+        like(trending, 1L, now.minusHours(1));
+        like(trending, 2L, now.minusMinutes(30));
+
+        trending.onLikeToggled(new LikeToggledEvent(1L, 1L, 1L, false, now.minusHours(2)));
+        assertEquals(Math.pow(0.5, 1.0 / 24), trending.scoreOf(1L), 0.001);
+        assertEquals(List.of(2L, 1L), trending.topArticleIds(10));
+
+        trending.onLikeToggled(new LikeToggledEvent(1L, 1L, 1L, false, now.minusHours(1)));
+        assertEquals(List.of(2L), trending.topArticleIds(10));
+    }
+
+    @Test
+    void tracksAtMostMaxArticles() {
+        TrendingService trending = new TrendingService(24, 2, 0.05);
+        like(trending, 1L, now.minusHours(3));
+        like(trending, 2L, now.minusHours(2));
+        like(trending, 3L, now.minusHours(1));
+
+        assertEquals(List.of(3L, 2L), trending.topArticleIds(10));
+        assertTrue(trending.scoreOf(1L) == 0);
+    }
+
+    private static void like(TrendingService trending, Long articleId, LocalDateTime at) {
+        trending.onLikeToggled(new LikeToggledEvent(articleId, 1L, 1L, true, at));
+    }
+}
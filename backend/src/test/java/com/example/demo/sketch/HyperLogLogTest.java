@@ -0,0 +1,54 @@
+package com.example.demo.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinErrorBounds() {
+        for (int n : new int[]{10, 1_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < n; i++) {
+                sketch.add("user" + i);
+                // Repeat views by the same viewer don't count
+                sketch.add("user" + i);
+            }
+            double error = Math.abs(sketch.estimate() - n) / (double) n;
+            assertTrue(error < 0.07, n + " viewers estimated as " + sketch.estimate());
+        }
+    }
+
+    @Test
+    void mergeIsUnionAndIdempotent() {
+        HyperLogLog left = new HyperLogLog();
+        HyperLogLog right = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 5_000; i++) {
+            left.add("user" + i);
+            both.add("user" + i);
+        }
+        for (int i = 2_500; i < 7_500; i++) {
+            right.add("user" + i);
+            both.add("user" + i);
+        }
+
+        left.merge(right);
+        left.merge(right);
+
+        assertEquals(both.estimate(), left.estimate());
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 300; i++) {
+            sketch.add("ip:10.0.0." + i);
+        }
+
+        assertEquals(sketch.estimate(), HyperLogLog.fromBytes(sketch.toBytes()).estimate());
+        assertEquals(0, HyperLogLog.fromBytes(null).estimate());
+    }
+}
@@ -156,7 +156,7 @@ const Home: Component = () => {
                 <div class="block w-full p-5 sm:w-1/5 sm:p-0 sm:mb-8">
                   <Show when={article.imageUrl}>
                     <img class='w-full h-1/3 mx-auto my-auto rounded-lg object-cover' 
-                      src={article.imageUrl}  
+                      src={article.thumbnailUrl || article.imageUrl}
                       alt={article.title} 
                       loading="lazy" 
                     />
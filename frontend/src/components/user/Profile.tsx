@@ -96,7 +96,7 @@ const Profile: Component = () => {
                         </div>
                       }>
                         <img class='w-full h-1/3 mx-auto my-auto rounded-lg object-cover' 
-                          src={article.imageUrl} alt={article.title} loading="lazy" />
+                          src={article.thumbnailUrl || article.imageUrl} alt={article.title} loading="lazy" />
                       </Show>
                       <div class="w-full my-auto items-center py-5 sm:w-11/12 sm:mx-auto">
                         <A href={`/${article.authorUsername}/${article.slug}`} 
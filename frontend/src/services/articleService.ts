@@ -37,6 +37,8 @@ export interface Article {
   content: string;
   slug: string;
   imageUrl: string;
+  // Fixed-size thumbnail for cards; only set for images uploaded to the backend
+  thumbnailUrl?: string | null;
   authorUsername: string;
   authorId: number;
   createdAt: string;
@@ -59,6 +61,12 @@ export interface PageResponse<T> {
   number: number;
 }
 
+// Interface defining the structure for batch article responses
+export interface ArticleBatchResponse {
+  articles: Article[];
+  missing: number[];
+}
+
 // Helper function to handle token expiration and redirect to login
 // Checks for 401 status and automatically logs out user if token is expired
 const handleTokenExpiration = (response: Response) => {
@@ -382,6 +390,39 @@ export const articleService = {
     }
   },
 
+  // Fetches a set of articles (bookmarks, recommendations) in one request, in the order of the ids
+  // Ids that no longer exist are listed in missing; at most 100 ids per call
+  async getArticlesByIds(ids: number[]): Promise<ArticleBatchResponse> {
+    try {
+      const url = new URL(`${API_URL}/batch`);
+      url.searchParams.append('ids', ids.join(','));
+
+      // Include auth token if available for like status
+      const token = typeof window !== 'undefined' ? getToken() : null;
+      const headers: Record<string, string> = {};
+
+      if (token) {
+        headers['Authorization'] = `Bearer ${token}`;
+      }
+
+      const response = await fetch(url.toString(), {
+        headers
+      });
+      if (!response.ok) {
+        handleTokenExpiration(response);
+        throw new Error(`HTTP error! status: ${response.status}`);
+      }
+      const data = await response.json();
+      return {
+        articles: data.articles.map(normalizeArticle),
+        missing: data.missing
+      };
+    } catch (error) {
+      console.error('Error fetching articles by ids:', error);
+      throw error;
+    }
+  },
+
   // Fetches articles by a specific username with pagination
   // Public endpoint that doesn't require authentication
   async getUserArticlesByUsername(username: string, page: number = 0, size: number = 10): Promise<PageResponse<Article>> {